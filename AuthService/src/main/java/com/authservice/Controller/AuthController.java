@@ -2,15 +2,22 @@ package com.authservice.Controller;
 
 import com.authservice.config.JwtService;
 
+import com.authservice.Service.TokenRevocationService;
+import com.authservice.hashing.PasswordHasher;
 import com.persistence.DTO.ApiResponse;
+import com.persistence.DTO.HashingStatsDTO;
 import com.persistence.Entity.User;
 import com.persistence.Repository.UserRepo;
 import org.springframework.http.*;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -18,46 +25,83 @@ public class AuthController {
 
     private final UserRepo userRepo;
     private final JwtService jwtService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final TokenRevocationService tokenRevocationService;
 
 
-    public AuthController(UserRepo userRepo, JwtService jwtService, PasswordEncoder passwordEncoder) {
+    public AuthController(UserRepo userRepo, JwtService jwtService, PasswordHasher passwordHasher,
+                          TokenRevocationService tokenRevocationService) {
         this.userRepo = userRepo;
         this.jwtService = jwtService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.tokenRevocationService = tokenRevocationService;
 
     }
 
+    // BCrypt runs on the hashing pool; the request thread is released until the hash is ready
     @PostMapping("/signup")
-    public ResponseEntity<ApiResponse<Map<String, Object>>> signup(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, Object>>>> signup(@RequestBody User user) {
         // Check if a user with this email already exists
         if (userRepo.existsByEmail(user.getEmail())) {
             throw new IllegalArgumentException("User already exists with this email");
         }
 
         // Encode password before saving
-        user.setPasswordHash(passwordEncoder.encode(user.getPasswordHash()));
-        userRepo.save(user);
-
-        Map<String, Object> result = Map.of("role", user.getRole().name());
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.ok("User created successfully", result));
+        return passwordHasher.encode(user.getPasswordHash()).thenApply(hash -> {
+            user.setPasswordHash(hash);
+            userRepo.save(user);
+
+            Map<String, Object> result = Map.of("role", user.getRole().name());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.ok("User created successfully", result));
+        });
     }
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<Map<String, String>>> login(@RequestBody User request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, String>>>> login(@RequestBody User request) {
         // Find user by email
         User user = userRepo.findByEmail(request.getEmail())
                 .orElseThrow(() -> new NoSuchElementException("User not found with email: " + request.getEmail()));
 
         // Validate password
-        if (!passwordEncoder.matches(request.getPasswordHash(), user.getPasswordHash())) {
-            throw new IllegalArgumentException("Invalid credentials");
-        }
+        return passwordHasher.matches(request.getPasswordHash(), user.getPasswordHash()).thenApply(valid -> {
+            if (!valid) {
+                throw new IllegalArgumentException("Invalid credentials");
+            }
+            if (passwordHasher.needsRehash(user.getPasswordHash())) {
+                rehash(user, request.getPasswordHash());
+            }
+
+            // Generate JWT token
+            String token = jwtService.generateToken(user.getId(), user.getEmail(), user.getRole().name());
+            return ResponseEntity.ok(ApiResponse.ok("Login successful", Map.of("token", token)));
+        });
+    }
+
+    // Revokes the bearer token of this request in every service
+    @PostMapping("/logout")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<String>> logout(@AuthenticationPrincipal Jwt jwt) {
+        tokenRevocationService.revoke(jwt);
+        return ResponseEntity.ok(ApiResponse.ok("Logged out successfully", null));
+    }
+
+    @GetMapping("/hashing/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<HashingStatsDTO>> getHashingStats() {
+        return ResponseEntity.ok(ApiResponse.ok("Password hashing stats fetched successfully", passwordHasher.stats()));
+    }
 
-        // Generate JWT token
-        String token = jwtService.generateToken(user.getEmail(), user.getRole().name());
-        return ResponseEntity.ok(ApiResponse.ok("Login successful", Map.of("token", token)));
+    // Best effort and off the response path: a busy pool just leaves the old hash for next time
+    private void rehash(User user, String rawPassword) {
+        try {
+            passwordHasher.encode(rawPassword).thenAccept(newHash -> {
+                if (userRepo.replacePasswordHash(user.getId(), user.getPasswordHash(), newHash) == 1) {
+                    passwordHasher.recordRehash();
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
     }
 
 
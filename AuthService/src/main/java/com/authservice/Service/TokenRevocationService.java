@@ -0,0 +1,61 @@
+package com.authservice.Service;
+
+import com.persistence.DTO.TokenRevokedEvent;
+import com.persistence.Entity.RevokedToken;
+import com.persistence.Repository.RevokedTokenRepository;
+import com.persistence.outbox.OutboxWriter;
+import com.persistence.security.RevocationList;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Records a revoked token id and broadcasts it on token-revoked-topic (through the outbox,
+ * in the same transaction), so every service adds it to its in-memory RevocationList.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final OutboxWriter outboxWriter;
+    private final RevocationList revocationList;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  OutboxWriter outboxWriter,
+                                  RevocationList revocationList) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.outboxWriter = outboxWriter;
+        this.revocationList = revocationList;
+    }
+
+    @Transactional
+    public void revoke(Jwt jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            throw new IllegalArgumentException("Token carries no id and cannot be revoked; it expires on its own");
+        }
+        if (revokedTokenRepository.existsById(jwt.getId())) {
+            return;
+        }
+
+        Object userId = jwt.getClaims().get("userId");
+        RevokedToken revoked = RevokedToken.builder()
+                .tokenId(jwt.getId())
+                .userId(userId instanceof Number n ? n.longValue() : null)
+                .expiresAt(LocalDateTime.ofInstant(jwt.getExpiresAt(), ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build();
+        revokedTokenRepository.save(revoked);
+
+        outboxWriter.write("token-revoked-topic", revoked.getTokenId(), TokenRevokedEvent.builder()
+                .tokenId(revoked.getTokenId())
+                .userId(revoked.getUserId())
+                .expiresAtMillis(jwt.getExpiresAt().toEpochMilli())
+                .build());
+
+        // This instance refuses the token straight away; the others follow the broadcast
+        revocationList.revoke(revoked.getTokenId(), jwt.getExpiresAt().toEpochMilli());
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.stereotype.Service;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class JwtService {
@@ -24,9 +25,12 @@ public class JwtService {
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
     }
 
-    public String generateToken(String username, String role) {
+    // userId lets resource servers authorize the caller without looking them up by email
+    public String generateToken(Long userId, String username, String role) {
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString()) // jti: what revocation refers to
                 .setSubject(username)
+                .claim("userId", userId)
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
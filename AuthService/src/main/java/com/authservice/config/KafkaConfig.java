@@ -0,0 +1,34 @@
+package com.authservice.config;
+
+import com.persistence.messaging.EventPublisher;
+import com.persistence.messaging.KafkaProducerSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+@Configuration
+public class KafkaConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ProducerFactory<String, Object> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(KafkaProducerSettings.tuned(bootstrapServers));
+    }
+
+    @Bean
+    public KafkaTemplate<String, Object> kafkaTemplate() {
+        return new KafkaTemplate<>(producerFactory());
+    }
+
+    @Bean
+    public EventPublisher eventPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                         @Value("${kafka.publisher.max-in-flight:1000}") int maxInFlight,
+                                         @Value("${kafka.publisher.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        return new EventPublisher(kafkaTemplate, maxInFlight, acquireTimeoutMs);
+    }
+}
@@ -1,15 +1,17 @@
 package com.authservice.config;
 
+import com.persistence.Repository.RevokedTokenRepository;
+import com.persistence.security.CachingJwtDecoder;
 import com.persistence.security.CustomAccessDeniedHandler;
 import com.persistence.security.CustomAuthenticationEntryPoint;
+import com.persistence.security.RevocationList;
+import com.persistence.security.TokenRevocationListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
@@ -18,6 +20,7 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtGra
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
 
 @Configuration
 @EnableWebSecurity
@@ -26,6 +29,12 @@ public class SecurityConfig {
 
     @Value("${jwt.secret}")
     private String secretKey;
+    @Value("${jwt.cache.max-entries:10000}")
+    private long jwtCacheMaxEntries;
+    @Value("${jwt.cache.max-ttl-minutes:60}")
+    private long jwtCacheMaxTtlMinutes;
+    @Value("${jwt.revocation.bits-per-bucket:262144}")
+    private int revocationBitsPerBucket;
     @Bean
     public CustomAccessDeniedHandler accessDeniedHandler() {
         return new CustomAccessDeniedHandler();
@@ -62,14 +71,25 @@ public class SecurityConfig {
     }
 
 
+    @Bean
+    public RevocationList revocationList() {
+        return new RevocationList(revocationBitsPerBucket);
+    }
+
+    @Bean
+    public TokenRevocationListener tokenRevocationListener(RevokedTokenRepository revokedTokenRepository) {
+        return new TokenRevocationListener(revocationList(), revokedTokenRepository);
+    }
+
       //Configure JWT decoder with our shared secret key.
 
     @Bean
     JwtDecoder jwtDecoder() {
         try {
-            return NimbusJwtDecoder.withSecretKey(
+            // Verified tokens are cached until they expire, revoked ones refused; see CachingJwtDecoder
+            return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(
                     new SecretKeySpec(secretKey.getBytes(), "HmacSHA256")
-            ).build();
+            ).build(), revocationList(), jwtCacheMaxEntries, Duration.ofMinutes(jwtCacheMaxTtlMinutes));
         } catch (JwtException e) {
             throw new RuntimeException("Invalid JWT signature", e);
         }
@@ -88,9 +108,5 @@ public class SecurityConfig {
         authenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
         return authenticationConverter;
     }
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 
 }
\ No newline at end of file
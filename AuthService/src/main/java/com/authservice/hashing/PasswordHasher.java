@@ -0,0 +1,153 @@
+package com.authservice.hashing;
+
+import com.persistence.DTO.HashingStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt off the request threads. Hashing runs on a fixed pool sized to the CPUs with a
+ * bounded queue; when the queue is full the caller gets a RejectedExecutionException (429)
+ * instead of piling more CPU work onto a saturated box.
+ * <p>
+ * The cost factor is calibrated at startup: the highest strength in
+ * [min-strength, max-strength] whose hash fits in {@code auth.hashing.target-ms}, unless
+ * {@code auth.hashing.strength} pins it. Hashes written with a lower cost are upgraded the
+ * next time their owner logs in.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private static final class OperationStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder queueNanos = new LongAdder();
+        private final LongAdder hashNanos = new LongAdder();
+        private final AtomicLong maxHashNanos = new AtomicLong();
+
+        void record(long queued, long hashed) {
+            count.increment();
+            queueNanos.add(queued);
+            hashNanos.add(hashed);
+            maxHashNanos.accumulateAndGet(hashed, Math::max);
+        }
+
+        HashingStatsDTO.OperationStatsDTO toDto() {
+            long n = count.sum();
+            return HashingStatsDTO.OperationStatsDTO.builder()
+                    .count(n)
+                    .avgQueueMs(n == 0 ? 0 : queueNanos.sum() / n / 1_000_000.0)
+                    .avgHashMs(n == 0 ? 0 : hashNanos.sum() / n / 1_000_000.0)
+                    .maxHashMs(maxHashNanos.get() / 1_000_000.0)
+                    .build();
+        }
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final int strength;
+    private final long targetMs;
+    private final ThreadPoolExecutor executor;
+    private final OperationStats encodeStats = new OperationStats();
+    private final OperationStats matchStats = new OperationStats();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+
+    public PasswordHasher(@Value("${auth.hashing.threads:0}") int threads,
+                          @Value("${auth.hashing.queue-capacity:256}") int queueCapacity,
+                          @Value("${auth.hashing.target-ms:250}") long targetMs,
+                          @Value("${auth.hashing.strength:0}") int pinnedStrength,
+                          @Value("${auth.hashing.min-strength:10}") int minStrength,
+                          @Value("${auth.hashing.max-strength:14}") int maxStrength) {
+        this.targetMs = targetMs;
+        this.strength = pinnedStrength > 0 ? pinnedStrength : calibrate(minStrength, maxStrength, targetMs);
+        this.encoder = new BCryptPasswordEncoder(strength);
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("BCrypt strength {} (target {} ms), {} hashing threads", strength, targetMs, poolSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(encodeStats, () -> encoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(matchStats, () -> encoder.matches(rawPassword, encodedPassword));
+    }
+
+    // True when the stored hash was written with a lower cost than the current one
+    public boolean needsRehash(String encodedPassword) {
+        return encoder.upgradeEncoding(encodedPassword);
+    }
+
+    public void recordRehash() {
+        rehashed.increment();
+    }
+
+    public HashingStatsDTO stats() {
+        return HashingStatsDTO.builder()
+                .strength(strength)
+                .targetMs(targetMs)
+                .activeThreads(executor.getActiveCount())
+                .queued(executor.getQueue().size())
+                .rejected(rejected.sum())
+                .rehashed(rehashed.sum())
+                .encode(encodeStats.toDto())
+                .matches(matchStats.toDto())
+                .build();
+    }
+
+    private <T> CompletableFuture<T> submit(OperationStats stats, Supplier<T> work) {
+        long enqueued = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long started = System.nanoTime();
+                try {
+                    return work.get();
+                } finally {
+                    stats.record(started - enqueued, System.nanoTime() - started);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Too many concurrent sign-ins, retry shortly");
+        }
+    }
+
+    private static int calibrate(int minStrength, int maxStrength, long targetMs) {
+        String sample = "calibration-password";
+        new BCryptPasswordEncoder(minStrength).encode(sample); // warm-up
+        int chosen = minStrength;
+        for (int cost = minStrength; cost <= maxStrength; cost++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(cost).encode(sample);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            if (elapsedMs > targetMs) break;
+            chosen = cost;
+        }
+        return chosen;
+    }
+}
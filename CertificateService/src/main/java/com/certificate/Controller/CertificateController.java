@@ -3,6 +3,8 @@ package com.certificate.Controller;
 import com.certificate.Service.CertificateService;
 import com.persistence.DTO.ApiResponse;
 import com.persistence.DTO.CertificateDTO;
+import com.persistence.DTO.PublisherStatsDTO;
+import com.persistence.messaging.EventPublisher;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -15,9 +17,11 @@ import java.util.NoSuchElementException;
 public class CertificateController {
 
     private final CertificateService certificateService;
+    private final EventPublisher eventPublisher;
 
-    public CertificateController(CertificateService certificateService) {
+    public CertificateController(CertificateService certificateService, EventPublisher eventPublisher) {
         this.certificateService = certificateService;
+        this.eventPublisher = eventPublisher;
     }
 
     @PostMapping("/generate/{enrollmentId}")
@@ -49,4 +53,11 @@ public class CertificateController {
         }
         return ResponseEntity.ok(ApiResponse.ok("Certificates fetched successfully", list));
     }
+
+    // 📊 EVENT PUBLISHER STATS
+    @GetMapping("/events/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PublisherStatsDTO>> getPublisherStats() {
+        return ResponseEntity.ok(ApiResponse.ok("Event publisher stats fetched successfully", eventPublisher.stats()));
+    }
 }
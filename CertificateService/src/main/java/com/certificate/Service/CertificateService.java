@@ -3,17 +3,16 @@ package com.certificate.Service;
 import com.certificate.event.CertificateGeneratedEvent;
 import com.persistence.DTO.CertificateDTO;
 import com.persistence.Entity.Certificate;
-import com.persistence.Entity.Enrollment;
 import com.persistence.Entity.User;
 import com.persistence.Entity.Course;
 import com.persistence.Repository.CertificateRepository;
 import com.persistence.Repository.LessonProgressRepository;
-import com.persistence.Repository.EnrollmentRepository;
 import com.persistence.Repository.UserRepo;
 import com.persistence.Repository.CourseRepository;
+import com.persistence.outbox.OutboxWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,15 +24,12 @@ public class CertificateService {
 
     private final CertificateRepository certificateRepository;
     private final LessonProgressRepository lessonProgressRepository;
-    private final EnrollmentRepository enrollmentRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
     private final UserRepo userRepo;
     private final CourseRepository courseRepository;
 
+    @Transactional
     public CertificateDTO generateCertificateByEnrollmentId(Long enrollmentId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + enrollmentId));
-
         // Check lesson completion
         long totalLessons = lessonProgressRepository.countByEnrollmentId(enrollmentId);
         long completedLessons = lessonProgressRepository.countByEnrollmentIdAndIsCompleteTrue(enrollmentId);
@@ -42,31 +38,29 @@ public class CertificateService {
             throw new RuntimeException("Cannot generate certificate. Not all lessons completed!");
         }
 
+        return issueCertificate(enrollmentId);
+    }
+
+    // Completion already established (manual check above, or the last LessonCompletedEvent)
+    @Transactional
+    public CertificateDTO issueCertificate(Long enrollmentId) {
+        // Insert-if-absent on uk_certificates_enrollment: concurrent calls cannot issue two certificates
+        boolean created = certificateRepository.insertIfAbsent(enrollmentId, LocalDateTime.now()).isPresent();
 
-        List<Certificate> existing = certificateRepository.findByEnrollment_Id(enrollmentId);
-        Certificate certificate;
-        if (!existing.isEmpty()) {
-            certificate = existing.get(0);
-        } else {
-            // Create and save new certificate
-            certificate = Certificate.builder()
-                    .enrollment(enrollment)
-                    .student(enrollment.getStudent())
-                    .course(enrollment.getCourse())
-                    .createdAt(LocalDateTime.now())
-                    .completionDate(LocalDateTime.now())
-                    .build();
-            certificate = certificateRepository.save(certificate);
+        Certificate certificate = certificateRepository.findByEnrollment_Id(enrollmentId).stream()
+                .findFirst()
+                .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + enrollmentId));
 
-            // Send Kafka event
+        if (created) {
+            // Kafka event via outbox (same transaction as the certificate insert)
             CertificateGeneratedEvent event = CertificateGeneratedEvent.builder()
                     .certificateId(certificate.getId())
-                    .studentId(enrollment.getStudent().getId())
-                    .courseId(enrollment.getCourse().getId())
-                    .courseTitle(enrollment.getCourse().getTitle())
-                    .studentEmail(enrollment.getStudent().getEmail())
+                    .studentId(certificate.getStudent().getId())
+                    .courseId(certificate.getCourse().getId())
+                    .courseTitle(certificate.getCourse().getTitle())
+                    .studentEmail(certificate.getStudent().getEmail())
                     .build();
-            kafkaTemplate.send("certificate-generated-topic", event);
+            outboxWriter.write("certificate-generated-topic", enrollmentId, event);
         }
 
         // Convert entity to DTO for response
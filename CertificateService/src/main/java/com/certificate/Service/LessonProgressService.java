@@ -1,61 +1,73 @@
 package com.certificate.Service;
 
-import com.persistence.Entity.Lesson;
+import com.persistence.DTO.LessonCompletedEvent;
 import com.persistence.Entity.LessonProgress;
-import com.persistence.Entity.Enrollment;
+import com.persistence.Repository.EnrollmentRepository;
 import com.persistence.Repository.LessonProgressRepository;
 import com.persistence.Repository.LessonRepository;
-import com.persistence.Repository.EnrollmentRepository;
-import lombok.RequiredArgsConstructor;
+import com.persistence.outbox.OutboxWriter;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 
 public class LessonProgressService {
 
-    public LessonProgressService(LessonProgressRepository lessonProgressRepository, LessonRepository lessonRepository, EnrollmentRepository enrollmentRepository, CertificateService certificateService) {
+    public LessonProgressService(LessonProgressRepository lessonProgressRepository, LessonRepository lessonRepository, EnrollmentRepository enrollmentRepository, OutboxWriter outboxWriter) {
         this.lessonProgressRepository = lessonProgressRepository;
         this.lessonRepository = lessonRepository;
         this.enrollmentRepository = enrollmentRepository;
-        this.certificateService = certificateService;
+        this.outboxWriter = outboxWriter;
     }
 
     private final LessonProgressRepository lessonProgressRepository;
     private final LessonRepository lessonRepository;
     private final EnrollmentRepository enrollmentRepository;
-    private final CertificateService certificateService;
+    private final OutboxWriter outboxWriter;
 
 
+    @Transactional
     public LessonProgress markLessonAsComplete(Long enrollmentId, Long lessonId) {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
-                .orElseThrow(() -> new RuntimeException("Enrollment not found: " + enrollmentId));
-
-        Lesson lesson = lessonRepository.findById(lessonId)
-                .orElseThrow(() -> new RuntimeException("Lesson not found: " + lessonId));
-
-        LessonProgress progress = lessonProgressRepository
-                .findByEnrollmentIdAndLessonId(enrollmentId, lessonId)
-                .orElse(LessonProgress.builder()
-                        .enrollment(enrollment)
-                        .lesson(lesson)
-                        .isComplete(false)
-                        .build());
-
-        progress.setIsComplete(true);
-        progress.setCompletedAt(LocalDateTime.now());
-        LessonProgress savedProgress = lessonProgressRepository.save(progress);
-
-        // Trigger certificate generation (DRY: use CertificateService)
+        LocalDateTime completedAt = LocalDateTime.now();
+        Optional<Long> flippedId;
         try {
-            certificateService.generateCertificateByEnrollmentId(enrollmentId);
-        } catch (RuntimeException ignored) {
-            // Not all lessons completed yet — safe to ignore
+            // One INSERT ... ON CONFLICT instead of three lookups and a save
+            flippedId = lessonProgressRepository.upsertCompleted(enrollmentId, lessonId, completedAt);
+        } catch (DataIntegrityViolationException e) {
+            // enrollment_id / lesson_id foreign keys
+            throw new RuntimeException("Enrollment or lesson not found: " + enrollmentId + ", " + lessonId);
+        }
+
+        if (flippedId.isEmpty()) {
+            // Already complete: nothing to count, nothing to publish
+            return lessonProgressRepository.findByEnrollmentIdAndLessonId(enrollmentId, lessonId)
+                    .orElseThrow(() -> new RuntimeException("Lesson progress not found: " + enrollmentId + ", " + lessonId));
         }
 
-        return savedProgress;
+        // Counter moves only on a real flip; the certificate listener reacts to courseCompleted
+        EnrollmentRepository.CompletionTally tally = enrollmentRepository.incrementCompletedLessons(enrollmentId);
+        outboxWriter.write("lesson-completed-topic", enrollmentId, LessonCompletedEvent.builder()
+                .lessonId(lessonId)
+                .studentId(tally.getStudentId())
+                .enrollmentId(enrollmentId)
+                .timestamp(completedAt.toString())
+                .courseCompleted(tally.getCourseCompleted())
+                .courseId(tally.getCourseId())
+                .lessonsRemaining(tally.getLessonsRemaining())
+                .build());
+
+        return LessonProgress.builder()
+                .id(flippedId.get())
+                .enrollment(enrollmentRepository.getReferenceById(enrollmentId))
+                .lesson(lessonRepository.getReferenceById(lessonId))
+                .isComplete(true)
+                .completedAt(completedAt)
+                .build();
     }
 
     public List<LessonProgress> getProgressByEnrollment(Long enrollmentId) {
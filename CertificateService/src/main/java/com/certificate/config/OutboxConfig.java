@@ -0,0 +1,36 @@
+package com.certificate.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.Repository.OutboxEventRepository;
+import com.persistence.messaging.EventPublisher;
+import com.persistence.outbox.OutboxRelay;
+import com.persistence.outbox.OutboxWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    public OutboxWriter outboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper,
+                                     @Value("${outbox.origin}") String origin) {
+        return new OutboxWriter(outboxEventRepository, objectMapper, origin);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxEventRepository outboxEventRepository,
+                                   EventPublisher eventPublisher,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${outbox.origin}") String origin,
+                                   @Value("${outbox.relay.batch-size:200}") int batchSize,
+                                   @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs,
+                                   @Value("${outbox.relay.max-attempts:100}") int maxAttempts) {
+        return new OutboxRelay(outboxEventRepository, eventPublisher, objectMapper, transactionManager,
+                origin, batchSize, sendTimeoutMs, maxAttempts);
+    }
+}
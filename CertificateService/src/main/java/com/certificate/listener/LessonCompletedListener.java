@@ -0,0 +1,22 @@
+package com.certificate.listener;
+
+import com.certificate.Service.CertificateService;
+import com.persistence.DTO.LessonCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Issues the certificate once, when the enrollment's last lesson flips to complete
+@Component
+@RequiredArgsConstructor
+public class LessonCompletedListener {
+
+    private final CertificateService certificateService;
+
+    @KafkaListener(topics = "lesson-completed-topic", groupId = "certificate-service")
+    public void handleLessonCompleted(LessonCompletedEvent event) {
+        if (Boolean.TRUE.equals(event.getCourseCompleted())) {
+            certificateService.issueCertificate(event.getEnrollmentId());
+        }
+    }
+}
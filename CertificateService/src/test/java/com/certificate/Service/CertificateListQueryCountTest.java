@@ -0,0 +1,150 @@
+package com.certificate.Service;
+
+import com.persistence.Entity.Certificate;
+import com.persistence.Entity.Course;
+import com.persistence.Entity.Enrollment;
+import com.persistence.Entity.User;
+import com.persistence.Repository.CertificateRepository;
+import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.EnrollmentRepository;
+import com.persistence.Repository.UserRepo;
+import com.persistence.outbox.OutboxWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The certificate list endpoints must issue a fixed number of statements however many
+ * certificates they return: enrollment, student and course come with the certificates.
+ * Each case is measured with a few rows and again with ten times as many.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(CertificateService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CertificateListQueryCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 30;
+
+    @MockBean
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private CertificateService certificateService;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void createStudentAndCourse() {
+        student = user(User.Role.STUDENT);
+        course = course();
+    }
+
+    @Test
+    void certificatesByCourseLoadsTheCourseThenOneQuery() {
+        certifyOthersInCourse(FEW);
+        long few = count(() -> assertThat(certificateService.getCertificatesByCourse(course.getId())).hasSize(FEW));
+        certifyOthersInCourse(MANY - FEW);
+        long many = count(() -> assertThat(certificateService.getCertificatesByCourse(course.getId())).hasSize(MANY));
+
+        assertThat(few).isEqualTo(2);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void certificatesByStudentLoadsTheStudentThenOneQuery() {
+        certifyStudentInOtherCourses(FEW);
+        long few = count(() -> assertThat(certificateService.getCertificatesByStudent(student.getId())).hasSize(FEW));
+        certifyStudentInOtherCourses(MANY - FEW);
+        long many = count(() -> assertThat(certificateService.getCertificatesByStudent(student.getId())).hasSize(MANY));
+
+        assertThat(few).isEqualTo(2);
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long count(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // A distinct student per certificate, so a lazy student load would show up per row
+    private void certifyOthersInCourse(int students) {
+        for (int i = 0; i < students; i++) {
+            certify(user(User.Role.STUDENT), course);
+        }
+    }
+
+    private void certifyStudentInOtherCourses(int courses) {
+        for (int i = 0; i < courses; i++) {
+            certify(student, course());
+        }
+    }
+
+    private void certify(User student, Course course) {
+        Enrollment enrollment = enrollmentRepository.save(Enrollment.builder()
+                .student(student)
+                .course(course)
+                .enrollmentDate(LocalDateTime.now())
+                .progress(100f)
+                .completed(true)
+                .build());
+        Certificate certificate = new Certificate();
+        certificate.setStudent(student);
+        certificate.setCourse(course);
+        certificate.setEnrollment(enrollment);
+        certificate.setCompletionDate(LocalDateTime.now());
+        certificateRepository.save(certificate);
+    }
+
+    private User user(User.Role role) {
+        User user = new User();
+        user.setFullName("User " + UUID.randomUUID());
+        user.setEmail(UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("not-a-real-hash");
+        user.setRole(role);
+        return userRepo.save(user);
+    }
+
+    private Course course() {
+        return courseRepository.save(Course.builder()
+                .title("Course " + UUID.randomUUID())
+                .description("Query count fixture")
+                .category("fixtures")
+                .instructor(user(User.Role.INSTRUCTOR))
+                .build());
+    }
+}
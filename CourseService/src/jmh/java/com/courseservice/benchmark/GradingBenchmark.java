@@ -0,0 +1,88 @@
+package com.courseservice.benchmark;
+
+import com.courseservice.cache.AnswerKey;
+import com.persistence.Entity.QuizQuestion;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of grading one submission: the per-question loop QuizService used to run over the
+ * loaded question entities (trim + equalsIgnoreCase per answer), against a cached compiled
+ * AnswerKey with and without per-question outcomes, and compiling the key on a cache miss.
+ * Roughly a third of the answers are wrong and a tenth are left blank.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradingBenchmark {
+
+    @Param({"20", "200"})
+    public int questionCount;
+
+    private List<QuizQuestion> questions;
+    private Map<Long, String> answers;
+    private AnswerKey answerKey;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        questions = new ArrayList<>(questionCount);
+        answers = new HashMap<>();
+        long id = 1_000;
+        for (int i = 0; i < questionCount; i++) {
+            id += 1 + random.nextInt(50);
+            String correct = "Option " + (char) ('A' + random.nextInt(4));
+            questions.add(QuizQuestion.builder()
+                    .id(id)
+                    .questionText("Question " + i)
+                    .correctAnswer(correct)
+                    .marks(1 + random.nextInt(3))
+                    .build());
+
+            int roll = random.nextInt(10);
+            if (roll == 0) continue;
+            answers.put(id, roll < 4 ? " option z " : "  " + correct.toLowerCase() + " ");
+        }
+        answerKey = AnswerKey.compile(questions);
+    }
+
+    @Benchmark
+    public int originalLoop() {
+        int score = 0;
+        for (QuizQuestion q : questions) {
+            int marks = q.getMarks() == null ? 1 : q.getMarks();
+            String correct = q.getCorrectAnswer();
+            String given = answers.get(q.getId());
+            if (given != null && correct != null && given.trim().equalsIgnoreCase(correct.trim())) {
+                score += marks;
+            }
+        }
+        return score;
+    }
+
+    @Benchmark
+    public int compiledKey() {
+        return answerKey.grade(answers);
+    }
+
+    @Benchmark
+    public int compiledKeyWithOutcomes() {
+        boolean[] attempted = new boolean[answerKey.size()];
+        boolean[] correct = new boolean[answerKey.size()];
+        return answerKey.grade(answers, attempted, correct);
+    }
+
+    @Benchmark
+    public int compileThenGrade() {
+        return AnswerKey.compile(questions).grade(answers);
+    }
+}
@@ -0,0 +1,113 @@
+package com.courseservice.benchmark;
+
+import com.courseservice.Controller.CourseController;
+import com.persistence.DTO.CourseDTO;
+import com.persistence.hateoas.LeanMode;
+import com.persistence.hateoas.LinkTemplate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Cost of turning one page of courses into EntityModels, as CourseService.toModel does:
+ * four links per course through linkTo(methodOn(..)) proxies, through precompiled
+ * LinkTemplates, and not at all in lean mode. Every invocation binds a fresh request,
+ * so per-request caching (base URI, lean flag) is paid once per page as in production.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkRenderingBenchmark {
+
+    private static final LinkTemplate COURSE_BY_ID = LinkTemplate.of(CourseController.class, "getCourseById");
+    private static final LinkTemplate UPDATE_COURSE = LinkTemplate.of(CourseController.class, "updateCourse");
+    private static final LinkTemplate DELETE_COURSE = LinkTemplate.of(CourseController.class, "deleteCourse");
+    private static final LinkTemplate ALL_COURSES = LinkTemplate.of(CourseController.class, "getAllCourses");
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private List<CourseDTO> page;
+
+    @Setup
+    public void setUp() {
+        page = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> CourseDTO.builder()
+                        .id(id)
+                        .title("Course " + id)
+                        .category("benchmark")
+                        .build())
+                .toList();
+    }
+
+    @TearDown(Level.Invocation)
+    public void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<EntityModel<CourseDTO>> methodOnProxies() {
+        bindRequest(false);
+        List<EntityModel<CourseDTO>> models = new ArrayList<>(page.size());
+        for (CourseDTO dto : page) {
+            models.add(EntityModel.of(dto,
+                    linkTo(methodOn(CourseController.class).getCourseById(dto.getId())).withSelfRel(),
+                    linkTo(methodOn(CourseController.class).updateCourse(dto.getId(), null)).withRel("update"),
+                    linkTo(methodOn(CourseController.class).deleteCourse(dto.getId())).withRel("delete"),
+                    linkTo(methodOn(CourseController.class).getAllCourses(null, null)).withRel("all-courses")));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<EntityModel<CourseDTO>> precompiledTemplates() {
+        bindRequest(false);
+        List<EntityModel<CourseDTO>> models = new ArrayList<>(page.size());
+        for (CourseDTO dto : page) {
+            models.add(LeanMode.isRequested()
+                    ? EntityModel.of(dto)
+                    : EntityModel.of(dto,
+                    COURSE_BY_ID.link("self", dto.getId()),
+                    UPDATE_COURSE.link("update", dto.getId()),
+                    DELETE_COURSE.link("delete", dto.getId()),
+                    ALL_COURSES.link("all-courses")));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<EntityModel<CourseDTO>> leanMode() {
+        bindRequest(true);
+        List<EntityModel<CourseDTO>> models = new ArrayList<>(page.size());
+        for (CourseDTO dto : page) {
+            models.add(LeanMode.isRequested()
+                    ? EntityModel.of(dto)
+                    : EntityModel.of(dto, COURSE_BY_ID.link("self", dto.getId())));
+        }
+        return models;
+    }
+
+    private static void bindRequest(boolean lean) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/courses");
+        request.setScheme("https");
+        request.setServerName("courses.example");
+        request.setServerPort(443);
+        if (lean) {
+            request.setParameter("lean", "true");
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -2,12 +2,15 @@ package com.courseservice.Controller;
 
 import com.courseservice.Service.CourseService;
 import com.persistence.DTO.*;
+import com.persistence.messaging.EventPublisher;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -19,17 +22,21 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 public class CourseController {
 
     private final CourseService courseService;
+    private final EventPublisher eventPublisher;
 
-    // 🔍 SEARCH COURSES
+    // 🔍 SEARCH COURSES (keyset paginated, follow the "next" link for more)
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<EntityModel<CourseDTO>>>> searchCourses(
+    public ResponseEntity<ApiResponse<CollectionModel<EntityModel<CourseDTO>>>> searchCourses(
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) Long instructorId) {
+            @RequestParam(required = false) Long instructorId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
 
-        List<EntityModel<CourseDTO>> courses = courseService.searchCourses(title, category, instructorId);
+        CollectionModel<EntityModel<CourseDTO>> courses =
+                courseService.searchCourses(title, category, instructorId, cursor, size);
 
-        if (courses == null || courses.isEmpty()) {
+        if (courses.getContent().isEmpty() && cursor == null) {
             String message = "No courses found matching the given criteria.";
 
             if (title != null && !title.trim().isEmpty()) {
@@ -47,6 +54,22 @@ public class CourseController {
         return ResponseEntity.ok(ApiResponse.ok("Courses fetched successfully", courses));
     }
 
+    // 🎯 RANKED TEXT SEARCH (relevance ordered, tolerant to typos and prefixes)
+    @GetMapping("/search/text")
+    public ResponseEntity<ApiResponse<CollectionModel<EntityModel<CourseDTO>>>> searchCoursesRanked(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer size) {
+
+        CollectionModel<EntityModel<CourseDTO>> courses = courseService.searchCoursesRanked(q, size);
+
+        if (courses.getContent().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No courses found matching: '" + q + "'"));
+        }
+
+        return ResponseEntity.ok(ApiResponse.ok("Courses fetched successfully", courses));
+    }
+
     // 🟢 CREATE COURSE (HATEOAS)
     @PostMapping
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
@@ -88,13 +111,15 @@ public class CourseController {
         }
     }
 
-    // 🟣 GET ALL COURSES (HATEOAS)
+    // 🟣 GET ALL COURSES (HATEOAS, keyset paginated)
     @GetMapping
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
-    public ResponseEntity<ApiResponse<CollectionModel<EntityModel<CourseDTO>>>> getAllCourses() {
-        CollectionModel<EntityModel<CourseDTO>> allCourses = courseService.getAllCourses();
+    public ResponseEntity<ApiResponse<CollectionModel<EntityModel<CourseDTO>>>> getAllCourses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CollectionModel<EntityModel<CourseDTO>> allCourses = courseService.getAllCourses(cursor, size);
 
-        if (allCourses.getContent().isEmpty()) {
+        if (allCourses.getContent().isEmpty() && cursor == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error("No courses available"));
         }
@@ -102,6 +127,29 @@ public class CourseController {
         return ResponseEntity.ok(ApiResponse.ok("All courses fetched successfully", allCourses));
     }
 
+    // 🌊 STREAM WHOLE CATALOG (NDJSON, constant memory per request)
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
+    public ResponseEntity<StreamingResponseBody> streamCourses() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(courseService::streamCourses);
+    }
+
+    // 📊 COURSE CACHE STATS
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<CacheStatsDTO>>> getCacheStats() {
+        return ResponseEntity.ok(ApiResponse.ok("Course cache stats fetched successfully", courseService.getCacheStats()));
+    }
+
+    // 📊 EVENT PUBLISHER STATS
+    @GetMapping("/events/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PublisherStatsDTO>> getPublisherStats() {
+        return ResponseEntity.ok(ApiResponse.ok("Event publisher stats fetched successfully", eventPublisher.stats()));
+    }
+
     // 🔴 DELETE COURSE
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -1,7 +1,11 @@
 package com.courseservice.Controller;
 
+import com.courseservice.Service.QuizImportService;
 import com.courseservice.Service.QuizService;
+import com.courseservice.leaderboard.LeaderboardService;
+import com.courseservice.submission.QuizSubmissionPipeline;
 import com.persistence.DTO.*;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
@@ -9,12 +13,21 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 @RestController
 @RequestMapping("/api/quizzes")
 @RequiredArgsConstructor
 public class QuizController {
 
     private final QuizService quizService;
+    private final QuizImportService quizImportService;
+    private final QuizSubmissionPipeline quizSubmissionPipeline;
+    private final LeaderboardService leaderboardService;
 
     @PostMapping("/add-questions")
     @PreAuthorize("hasRole('INSTRUCTOR')")
@@ -23,6 +36,32 @@ public class QuizController {
         return ResponseEntity.ok(ApiResponse.ok("Quiz questions added successfully", quizModel));
     }
 
+    // 📥 BULK QUESTION-BANK IMPORT (body: JSON array of questions, streamed)
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('INSTRUCTOR')")
+    public ResponseEntity<ApiResponse<EntityModel<QuizImportProgressDTO>>> importQuestionBank(
+            @RequestParam Long courseId,
+            @RequestParam String title,
+            @RequestParam(required = false) String description,
+            @RequestParam(required = false) String importId,
+            HttpServletRequest request) {
+        EntityModel<QuizImportProgressDTO> result;
+        try {
+            result = quizImportService.importQuestionBank(courseId, title, description, importId, request.getInputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Question bank imported successfully", result));
+    }
+
+    // 📊 IMPORT PROGRESS (poll with the importId passed to /import)
+    @GetMapping("/import/{importId}")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<ApiResponse<EntityModel<QuizImportProgressDTO>>> getImportProgress(@PathVariable String importId) {
+        return ResponseEntity.ok(ApiResponse.ok("Import progress fetched successfully",
+                quizImportService.getImportProgress(importId)));
+    }
+
     @PostMapping("/generate/final")
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<ApiResponse<EntityModel<QuizDTO>>> generateFinalQuizAfterCourseCompletion(
@@ -39,6 +78,67 @@ public class QuizController {
         return ResponseEntity.ok(ApiResponse.ok("Quiz submitted successfully", response));
     }
 
+    // ⚡ EXAM MODE: queue the submission, answer with a token right away
+    @PostMapping("/submit/async")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<ApiResponse<EntityModel<QuizSubmissionStatusDTO>>> submitQuizAsync(@RequestBody @Valid SubmitRequestDTO req) {
+        QuizSubmissionStatusDTO status = quizSubmissionPipeline.submit(req);
+        EntityModel<QuizSubmissionStatusDTO> model = EntityModel.of(status,
+                linkTo(methodOn(QuizController.class).getSubmissionStatus(status.getToken())).withRel("status"));
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.ok("Quiz submission accepted", model));
+    }
+
+    // ⏳ POLL AN EXAM-MODE SUBMISSION (PENDING → GRADED / FAILED)
+    @GetMapping("/submit/async/{token}")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<ApiResponse<QuizSubmissionStatusDTO>> getSubmissionStatus(@PathVariable String token) {
+        return ResponseEntity.ok(ApiResponse.ok("Submission status fetched successfully",
+                quizSubmissionPipeline.getStatus(token)));
+    }
+
+    // 📈 PER-QUESTION ANALYTICS (difficulty, discrimination, score distribution)
+    @GetMapping("/{quizId}/analytics")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN')")
+    public ResponseEntity<ApiResponse<QuizAnalyticsDTO>> getQuizAnalytics(@PathVariable Long quizId) {
+        return ResponseEntity.ok(ApiResponse.ok("Quiz analytics fetched successfully",
+                quizService.getQuizAnalytics(quizId)));
+    }
+
+    // 🏆 QUIZ LEADERBOARD (best score per student)
+    @GetMapping("/{quizId}/leaderboard")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
+    public ResponseEntity<ApiResponse<LeaderboardDTO>> getQuizLeaderboard(@PathVariable Long quizId,
+                                                                         @RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(ApiResponse.ok("Quiz leaderboard fetched successfully",
+                leaderboardService.quizLeaderboard(quizId, top)));
+    }
+
+    @GetMapping("/{quizId}/leaderboard/students/{studentId}")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
+    public ResponseEntity<ApiResponse<LeaderboardDTO.EntryDTO>> getQuizRank(@PathVariable Long quizId,
+                                                                           @PathVariable Long studentId) {
+        return ResponseEntity.ok(ApiResponse.ok("Quiz rank fetched successfully",
+                leaderboardService.quizRank(quizId, studentId)));
+    }
+
+    // 🏆 COURSE LEADERBOARD (sum of best quiz scores)
+    @GetMapping("/course/{courseId}/leaderboard")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
+    public ResponseEntity<ApiResponse<LeaderboardDTO>> getCourseLeaderboard(@PathVariable Long courseId,
+                                                                           @RequestParam(defaultValue = "10") int top) {
+        return ResponseEntity.ok(ApiResponse.ok("Course leaderboard fetched successfully",
+                leaderboardService.courseLeaderboard(courseId, top)));
+    }
+
+    @GetMapping("/course/{courseId}/leaderboard/students/{studentId}")
+    @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
+    public ResponseEntity<ApiResponse<LeaderboardDTO.EntryDTO>> getCourseRank(@PathVariable Long courseId,
+                                                                             @PathVariable Long studentId) {
+        return ResponseEntity.ok(ApiResponse.ok("Course rank fetched successfully",
+                leaderboardService.courseRank(courseId, studentId)));
+    }
+
     // ↓↓↓ Added for HATEOAS links to work properly ↓↓↓
 
     @GetMapping("/{quizId}")
@@ -57,8 +157,8 @@ public class QuizController {
 
     @GetMapping("/submission/{submissionId}")
     @PreAuthorize("hasAnyRole('INSTRUCTOR', 'ADMIN', 'STUDENT')")
-    public ResponseEntity<ApiResponse<String>> getSubmissionById(@PathVariable Long submissionId) {
-        // dummy method for linkTo() in service
-        return ResponseEntity.ok(ApiResponse.ok("Quiz submission details link placeholder", null));
+    public ResponseEntity<ApiResponse<QuizSubmissionDTO>> getSubmissionById(@PathVariable Long submissionId) {
+        return ResponseEntity.ok(ApiResponse.ok("Quiz submission fetched successfully",
+                quizService.getSubmission(submissionId)));
     }
 }
@@ -1,28 +1,50 @@
 package com.courseservice.Service;
 
 import com.courseservice.Controller.CourseController;
+import com.courseservice.cache.AnswerKeyCache;
+import com.courseservice.cache.CourseCache;
+import com.courseservice.cache.CoursePage;
+import com.courseservice.event.CourseChangedEvent;
 import com.courseservice.event.CourseCreateEvent;
+import com.courseservice.search.CourseSearchEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.DTO.CacheStatsDTO;
 import com.persistence.DTO.CourseRequestDTO;
 import com.persistence.DTO.CourseDTO;
 import com.persistence.Entity.Course;
 import com.persistence.Entity.User;
 import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.QuizRepository;
 import com.persistence.Repository.UserRepo;
+import com.persistence.hateoas.LeanMode;
+import com.persistence.security.CurrentUser;
+import com.persistence.outbox.OutboxWriter;
+import com.persistence.hateoas.LinkTemplate;
+import com.persistence.tx.AfterCommit;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.*;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -33,13 +55,38 @@ public class CourseService {
 
     private final CourseRepository courseRepository;
     private final UserRepo userRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final CourseSearchEngine courseSearchEngine;
+    private final CourseCache courseCache;
+    private final QuizRepository quizRepository;
+    private final AnswerKeyCache answerKeyCache;
+
+    private static final LinkTemplate COURSE_BY_ID = LinkTemplate.of(CourseController.class, "getCourseById");
+    private static final LinkTemplate UPDATE_COURSE = LinkTemplate.of(CourseController.class, "updateCourse");
+    private static final LinkTemplate DELETE_COURSE = LinkTemplate.of(CourseController.class, "deleteCourse");
+    private static final LinkTemplate ALL_COURSES = LinkTemplate.of(CourseController.class, "getAllCourses");
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String STREAM_SQL = """
+            SELECT c.id, c.title, c.description, c.category, c.created_at, c.updated_at,
+                   u.id AS instructor_id, u.full_name, u.email, u.role
+            FROM courses c
+            JOIN users u ON u.id = c.instructor_id
+            ORDER BY c.created_at, c.id
+            """;
 
     @PersistenceContext
     private EntityManager entityManager;
 
-    // 🔍 SEARCH COURSES (CriteriaBuilder + HATEOAS)
-    public List<EntityModel<CourseDTO>> searchCourses(String title, String category, Long instructorId) {
+    // 🔍 SEARCH COURSES (CriteriaBuilder + keyset pagination + HATEOAS)
+    public CollectionModel<EntityModel<CourseDTO>> searchCourses(String title, String category, Long instructorId,
+                                                                 String cursor, Integer size) {
         String titleKey = (title == null ? "" : title.trim().toLowerCase(Locale.ROOT));
         String categoryKey = (category == null ? "" : category.trim().toLowerCase(Locale.ROOT));
 
@@ -62,16 +109,42 @@ public class CourseService {
             predicates.add(cb.equal(root.get("instructor").get("id"), instructorId));
         }
 
-        cq.select(root).where(cb.and(predicates.toArray(new Predicate[0])));
-        List<Course> results = entityManager.createQuery(cq).getResultList();
+        int pageSize = resolvePageSize(size);
+        CoursePage page = toPage(fetchPage(cb, cq, root, predicates, cursor, pageSize), pageSize);
+
+        return toPageModel(page,
+                linkTo(methodOn(CourseController.class)
+                        .searchCourses(title, category, instructorId, cursor, size)).withSelfRel(),
+                next -> linkTo(methodOn(CourseController.class)
+                        .searchCourses(title, category, instructorId, next, pageSize)).withRel("next"));
+    }
+
+    // 🎯 RANKED TEXT SEARCH (trigram / full-text, typo + prefix tolerant)
+    public CollectionModel<EntityModel<CourseDTO>> searchCoursesRanked(String q, Integer size) {
+        if (q == null || q.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+
+        List<Long> rankedIds = courseSearchEngine.search(q, resolvePageSize(size));
+        Map<Long, Course> byId = courseRepository.findWithInstructorByIdIn(rankedIds).stream()
+                .collect(Collectors.toMap(Course::getId, c -> c));
 
-        return results.stream()
+        List<EntityModel<CourseDTO>> courseModels = rankedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .map(this::mapToDTO)
                 .map(this::toModel)
                 .collect(Collectors.toList());
+
+        if (LeanMode.isRequested()) {
+            return CollectionModel.of(courseModels);
+        }
+        return CollectionModel.of(courseModels,
+                linkTo(methodOn(CourseController.class).searchCoursesRanked(q, size)).withSelfRel());
     }
 
-    // 🟢 CREATE COURSE (Kafka + HATEOAS)
+    // 🟢 CREATE COURSE (Kafka via outbox + HATEOAS)
+    @Transactional
     public EntityModel<CourseDTO> createCourse(CourseRequestDTO dto) {
         User instructor = userRepository.findById(dto.getInstructorId())
                 .orElseThrow(() -> new RuntimeException("Instructor not found"));
@@ -84,8 +157,13 @@ public class CourseService {
                 .build();
 
         Course saved = courseRepository.save(course);
+        // Local index/cache follow the commit; other instances hear about it from the outbox event
+        AfterCommit.run(() -> {
+            courseSearchEngine.onCourseSaved(saved);
+            courseCache.evictPages();
+        });
 
-        // Send Kafka event
+        // Kafka event, written to the outbox in this transaction and relayed asynchronously
         CourseCreateEvent event = CourseCreateEvent.builder()
                 .courseId(saved.getId())
                 .title(saved.getTitle())
@@ -93,7 +171,7 @@ public class CourseService {
                 .instructorId(saved.getInstructor().getId())
                 .build();
 
-        kafkaTemplate.send("course-created-topic", event);
+        outboxWriter.write("course-created-topic", saved.getId(), event);
 
         return toModel(mapToDTO(saved));
     }
@@ -104,16 +182,12 @@ public class CourseService {
         Course course = courseRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Course not found with id " + id));
 
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = auth.getName();
-
-        User currentUser = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
-
-        boolean isAdmin = currentUser.getRole().equalsIgnoreCase("ADMIN");
-        boolean isInstructor = currentUser.getRole().equalsIgnoreCase("INSTRUCTOR");
+        // Caller id and role come from the token claims: no user lookup
+        CurrentUser caller = CurrentUser.get();
+        boolean isAdmin = caller.isAdmin();
+        boolean isInstructor = caller.isInstructor();
 
-        if (isInstructor && !course.getInstructor().getId().equals(currentUser.getId())) {
+        if (isInstructor && !course.getInstructor().getId().equals(caller.requireUserId(userRepository))) {
             throw new RuntimeException("You are not authorized to update this course.");
         }
 
@@ -128,34 +202,97 @@ public class CourseService {
         }
 
         Course updated = courseRepository.save(course);
+        AfterCommit.run(() -> {
+            courseSearchEngine.onCourseSaved(updated);
+            courseCache.evict(id);
+        });
+        outboxWriter.write("course-changed-topic", id, CourseChangedEvent.builder()
+                .courseId(id)
+                .changeType("UPDATED")
+                .build());
+
         return toModel(mapToDTO(updated));
     }
 
-    // 🔵 GET COURSE BY ID
+    // 🔵 GET COURSE BY ID (read-through cache)
     public EntityModel<CourseDTO> getCourseById(Long id) {
-        Course course = courseRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Course not found with id " + id));
-        return toModel(mapToDTO(course));
+        CourseDTO dto = courseCache.get(id, key -> mapToDTO(courseRepository.findWithInstructorById(key)
+                .orElseThrow(() -> new RuntimeException("Course not found with id " + key))));
+        return toModel(dto);
     }
 
-    // 🟣 GET ALL COURSES
-    public CollectionModel<EntityModel<CourseDTO>> getAllCourses() {
-        List<EntityModel<CourseDTO>> courseModels = courseRepository.findAll()
-                .stream()
-                .map(this::mapToDTO)
-                .map(this::toModel)
-                .collect(Collectors.toList());
+    // 🟣 GET ALL COURSES (keyset pagination on createdAt, id, pages cached)
+    public CollectionModel<EntityModel<CourseDTO>> getAllCourses(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        CoursePage page = courseCache.getPage(cursor + "|" + pageSize, () -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Course> cq = cb.createQuery(Course.class);
+            Root<Course> root = cq.from(Course.class);
+            return toPage(fetchPage(cb, cq, root, new ArrayList<>(), cursor, pageSize), pageSize);
+        });
+
+        return toPageModel(page,
+                linkTo(methodOn(CourseController.class).getAllCourses(cursor, size)).withSelfRel(),
+                next -> linkTo(methodOn(CourseController.class).getAllCourses(next, pageSize)).withRel("next"));
+    }
 
-        return CollectionModel.of(courseModels,
-                linkTo(methodOn(CourseController.class).getAllCourses()).withSelfRel());
+    // 🌊 STREAM ALL COURSES (NDJSON straight from a server-side JDBC cursor)
+    public void streamCourses(OutputStream out) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        // PostgreSQL only honours the fetch size inside a transaction, otherwise it buffers the whole result
+        tx.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(STREAM_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            return ps;
+        }, (ResultSet rs) -> {
+            CourseDTO dto = CourseDTO.builder()
+                    .id(rs.getLong("id"))
+                    .title(rs.getString("title"))
+                    .description(rs.getString("description"))
+                    .category(rs.getString("category"))
+                    .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                    .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                    .instructor(CourseDTO.InstructorDTO.builder()
+                            .id(rs.getLong("instructor_id"))
+                            .fullName(rs.getString("full_name"))
+                            .email(rs.getString("email"))
+                            .role(rs.getString("role"))
+                            .build())
+                    .build();
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
     }
 
     // 🔴 DELETE COURSE
+    @Transactional
     public void deleteCourse(Long id) {
         if (!courseRepository.existsById(id)) {
             throw new RuntimeException("Course not found with id " + id);
         }
+        List<Long> quizIds = quizRepository.findIdsByCourseId(id);
         courseRepository.deleteById(id);
+        AfterCommit.run(() -> {
+            courseSearchEngine.onCourseDeleted(id);
+            courseCache.evict(id);
+            quizIds.forEach(answerKeyCache::evict);
+        });
+        outboxWriter.write("course-changed-topic", id, CourseChangedEvent.builder()
+                .courseId(id)
+                .changeType("DELETED")
+                .build());
+    }
+
+    // 📊 CACHE STATS (hit / miss / eviction per tier)
+    public List<CacheStatsDTO> getCacheStats() {
+        return courseCache.stats();
     }
 
     // 🧩 Map Entity → DTO
@@ -180,13 +317,90 @@ public class CourseService {
                 .build();
     }
 
-    // 🔗 Convert DTO → HATEOAS Model (✅ Unidirectional)
+    // 📄 Apply keyset predicate + ordering, fetch one extra row to know whether a next page exists
+    private List<Course> fetchPage(CriteriaBuilder cb, CriteriaQuery<Course> cq, Root<Course> root,
+                                   List<Predicate> predicates, String cursor, int pageSize) {
+        if (cursor != null && !cursor.isBlank()) {
+            CourseCursor after = CourseCursor.decode(cursor);
+            predicates.add(cb.or(
+                    cb.greaterThan(root.get("createdAt"), after.createdAt()),
+                    cb.and(cb.equal(root.get("createdAt"), after.createdAt()),
+                            cb.greaterThan(root.get("id"), after.id()))));
+        }
+
+        root.fetch("instructor", JoinType.INNER);
+        cq.select(root)
+                .where(cb.and(predicates.toArray(new Predicate[0])))
+                .orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+    }
+
+    private CoursePage toPage(List<Course> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<Course> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Course last = page.get(page.size() - 1);
+            nextCursor = new CourseCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CoursePage(page.stream().map(this::mapToDTO).collect(Collectors.toList()), nextCursor);
+    }
+
+    private CollectionModel<EntityModel<CourseDTO>> toPageModel(CoursePage page, Link selfLink,
+                                                                Function<String, Link> nextLink) {
+        List<EntityModel<CourseDTO>> courseModels = page.courses().stream()
+                .map(this::toModel)
+                .collect(Collectors.toList());
+
+        CollectionModel<EntityModel<CourseDTO>> model = LeanMode.isRequested()
+                ? CollectionModel.of(courseModels)
+                : CollectionModel.of(courseModels, selfLink);
+        if (page.nextCursor() != null) {
+            model.add(nextLink.apply(page.nextCursor()));
+        }
+        return model;
+    }
+
+    private static int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) return DEFAULT_PAGE_SIZE;
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    // 🔖 Opaque continuation token: base64url("createdAt|id")
+    private record CourseCursor(LocalDateTime createdAt, Long id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CourseCursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.lastIndexOf('|');
+                return new CourseCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                        Long.parseLong(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+        }
+    }
+
+    // 🔗 Convert DTO → HATEOAS Model (✅ Unidirectional, precompiled templates, lean = no links)
     private EntityModel<CourseDTO> toModel(CourseDTO dto) {
+        if (LeanMode.isRequested()) {
+            return EntityModel.of(dto);
+        }
         return EntityModel.of(dto,
-                linkTo(methodOn(CourseController.class).getCourseById(dto.getId())).withSelfRel(),
-                linkTo(methodOn(CourseController.class).updateCourse(dto.getId(), null)).withRel("update"),
-                linkTo(methodOn(CourseController.class).deleteCourse(dto.getId())).withRel("delete"),
-                linkTo(methodOn(CourseController.class).getAllCourses()).withRel("all-courses")
+                COURSE_BY_ID.link("self", dto.getId()),
+                UPDATE_COURSE.link("update", dto.getId()),
+                DELETE_COURSE.link("delete", dto.getId()),
+                ALL_COURSES.link("all-courses")
         );
     }
 }
@@ -8,19 +8,18 @@ import com.persistence.Entity.User;
 import com.persistence.Repository.LessonRepository;
 import com.persistence.Repository.CourseRepository;
 import com.persistence.Repository.UserRepo;
+import com.persistence.hateoas.LeanMode;
+import com.persistence.security.CurrentUser;
+import com.persistence.hateoas.LinkTemplate;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.stereotype.Service;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @Service
 public class LessonService {
 
@@ -28,6 +27,11 @@ public class LessonService {
     private final CourseRepository courseRepository;
     private final UserRepo userRepo;
 
+    private static final LinkTemplate LESSON_BY_ID = LinkTemplate.of(LessonController.class, "getLessonById");
+    private static final LinkTemplate LESSONS_BY_COURSE = LinkTemplate.of(LessonController.class, "getLessonsByCourse");
+    private static final LinkTemplate UPDATE_LESSON = LinkTemplate.of(LessonController.class, "updateLesson");
+    private static final LinkTemplate DELETE_LESSON = LinkTemplate.of(LessonController.class, "deleteLesson");
+
     public LessonService(LessonRepository lessonRepository, CourseRepository courseRepository, UserRepo userRepo) {
         this.lessonRepository = lessonRepository;
         this.courseRepository = courseRepository;
@@ -51,9 +55,12 @@ public class LessonService {
                 .map(this::toModel)
                 .collect(Collectors.toList());
 
+        if (LeanMode.isRequested()) {
+            return CollectionModel.of(lessonModels);
+        }
         return CollectionModel.of(
                 lessonModels,
-                linkTo(methodOn(LessonController.class).getLessonsByCourse(courseId)).withSelfRel()
+                LESSONS_BY_COURSE.link("self", courseId)
         );
     }
 
@@ -66,15 +73,12 @@ public class LessonService {
         Lesson existingLesson = lessonRepository.findById(lessonId)
                 .orElseThrow(() -> new RuntimeException("Lesson not found with id " + lessonId));
 
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String email = authentication.getName();
-        User currentUser = userRepo.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found: " + email));
+        // Caller id and role come from the token claims: no user lookup
+        CurrentUser caller = CurrentUser.get();
+        boolean isAdmin = caller.isAdmin();
+        boolean isInstructor = caller.isInstructor();
 
-        boolean isAdmin = currentUser.getRole().equalsIgnoreCase("ADMIN");
-        boolean isInstructor = currentUser.getRole().equalsIgnoreCase("INSTRUCTOR");
-
-        if (isInstructor && !existingLesson.getInstructor().getId().equals(currentUser.getId())) {
+        if (isInstructor && !existingLesson.getInstructor().getId().equals(caller.requireUserId(userRepo))) {
             throw new RuntimeException("You are not authorized to update this lesson.");
         }
 
@@ -111,13 +115,16 @@ public class LessonService {
         return toModel(lesson);
     }
 
-    // 🔗 HATEOAS Link Builder
+    // 🔗 HATEOAS Link Builder (precompiled templates, lean = no links)
     private EntityModel<Lesson> toModel(Lesson lesson) {
+        if (LeanMode.isRequested()) {
+            return EntityModel.of(lesson);
+        }
         return EntityModel.of(lesson,
-                linkTo(methodOn(LessonController.class).getLessonById(lesson.getId())).withSelfRel(),
-                linkTo(methodOn(LessonController.class).getLessonsByCourse(
-                        lesson.getCourse() != null ? lesson.getCourse().getId() : null)).withRel("course-lessons"),
-                linkTo(methodOn(LessonController.class).updateLesson(lesson.getId(), null)).withRel("update"),
-                linkTo(methodOn(LessonController.class).deleteLesson(lesson.getId())).withRel("delete"));
+                LESSON_BY_ID.link("self", lesson.getId()),
+                LESSONS_BY_COURSE.link("course-lessons",
+                        lesson.getCourse() != null ? lesson.getCourse().getId() : null),
+                UPDATE_LESSON.link("update", lesson.getId()),
+                DELETE_LESSON.link("delete", lesson.getId()));
     }
 }
@@ -0,0 +1,204 @@
+package com.courseservice.Service;
+
+import com.courseservice.Controller.QuizController;
+import com.courseservice.cache.QuestionSampler;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.persistence.DTO.QuizImportProgressDTO;
+import com.persistence.DTO.QuizQuestionImportDTO;
+import com.persistence.Entity.Course;
+import com.persistence.Entity.Quiz;
+import com.persistence.Entity.QuizQuestion;
+import com.persistence.Repository.CourseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Question-bank import: the upload (a JSON array of questions) is read element by element
+ * with Jackson's streaming parser, and questions are persisted in JDBC batches with a
+ * flush/clear every quiz.import.batch-size rows, so memory stays flat for any bank size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuizImportService {
+
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final QuestionSampler questionSampler;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${quiz.import.batch-size:500}")
+    private int batchSize;
+
+    // Finished imports stay readable for a while so clients can poll the final state
+    private final Cache<String, QuizImportProgressDTO> progress = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(1))
+            .build();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignQuestionSequence() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/quiz-question-sequence.sql")).execute(dataSource);
+        } catch (RuntimeException e) {
+            log.warn("Could not align quiz_questions_seq with existing ids: {}", e.getMessage());
+        }
+    }
+
+    @Transactional
+    public EntityModel<QuizImportProgressDTO> importQuestionBank(Long courseId, String title, String description,
+                                                                 String importId, InputStream body) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new NoSuchElementException("Course not found: " + courseId));
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Quiz title cannot be blank");
+        }
+
+        String id = (importId == null || importId.isBlank()) ? UUID.randomUUID().toString() : importId;
+        QuizImportProgressDTO running = progress.getIfPresent(id);
+        if (running != null && "RUNNING".equals(running.getStatus())) {
+            throw new IllegalArgumentException("Import already running: " + id);
+        }
+
+        Quiz quiz = Quiz.builder()
+                .course(course)
+                .title(title)
+                .description(description)
+                .totalMarks(0)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(quiz);
+        Long quizId = quiz.getId();
+
+        QuizImportProgressDTO state = QuizImportProgressDTO.builder()
+                .importId(id)
+                .quizId(quizId)
+                .status("RUNNING")
+                .build();
+        progress.put(id, state);
+
+        long imported = 0;
+        int totalMarks = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Question bank must be a JSON array of questions");
+            }
+
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                QuizQuestionImportDTO row = objectMapper.readValue(parser, QuizQuestionImportDTO.class);
+                QuizQuestion question = toQuestion(row, imported + 1,
+                        entityManager.getReference(Quiz.class, quizId),
+                        entityManager.getReference(Course.class, courseId));
+                entityManager.persist(question);
+                totalMarks += question.getMarks();
+                imported++;
+
+                if (imported % batchSize == 0) {
+                    // Sends the pending inserts as one JDBC batch and drops them from the persistence context
+                    entityManager.flush();
+                    entityManager.clear();
+                    state.setQuestionsImported(imported);
+                    state.setBatchesFlushed(state.getBatchesFlushed() + 1);
+                }
+            }
+            if (token != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Question #" + (imported + 1) + " is not a JSON object");
+            }
+
+            entityManager.flush();
+            entityManager.clear();
+            entityManager.find(Quiz.class, quizId).setTotalMarks(totalMarks);
+            questionSampler.evict(courseId);
+        } catch (IOException e) {
+            fail(state, e.getMessage());
+            throw new IllegalArgumentException("Malformed question bank: " + e.getMessage());
+        } catch (RuntimeException e) {
+            fail(state, e.getMessage());
+            throw e;
+        }
+
+        state.setQuestionsImported(imported);
+        state.setBatchesFlushed(state.getBatchesFlushed() + 1);
+        state.setStatus("COMPLETED");
+        log.info("Imported {} questions into quiz {} ({} batches)", imported, quizId, state.getBatchesFlushed());
+
+        return toModel(state);
+    }
+
+    public EntityModel<QuizImportProgressDTO> getImportProgress(String importId) {
+        QuizImportProgressDTO state = progress.getIfPresent(importId);
+        if (state == null) {
+            throw new NoSuchElementException("No import found with id: " + importId);
+        }
+        return toModel(state);
+    }
+
+    private QuizQuestion toQuestion(QuizQuestionImportDTO row, long position, Quiz quiz, Course course) {
+        if (isBlank(row.getQuestionText()) || isBlank(row.getOptionsJson()) || isBlank(row.getCorrectAnswer())) {
+            throw new IllegalArgumentException(
+                    "Question #" + position + " needs questionText, optionsJson and correctAnswer");
+        }
+        // options_json is jsonb: reject bad JSON here with its position instead of failing the flush
+        try {
+            objectMapper.readTree(row.getOptionsJson());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Question #" + position + " has invalid optionsJson");
+        }
+        return QuizQuestion.builder()
+                .quiz(quiz)
+                .course(course)
+                .questionText(row.getQuestionText())
+                .optionsJson(row.getOptionsJson())
+                .correctAnswer(row.getCorrectAnswer())
+                .marks(row.getMarks() == null ? 1 : row.getMarks())
+                .build();
+    }
+
+    // The transaction rolls back, so nothing of this import (quiz included) is kept
+    private void fail(QuizImportProgressDTO state, String error) {
+        state.setStatus("FAILED");
+        state.setQuizId(null);
+        state.setError(error);
+    }
+
+    private EntityModel<QuizImportProgressDTO> toModel(QuizImportProgressDTO state) {
+        EntityModel<QuizImportProgressDTO> model = EntityModel.of(state,
+                linkTo(methodOn(QuizController.class).getImportProgress(state.getImportId())).withSelfRel());
+        if (state.getQuizId() != null && "COMPLETED".equals(state.getStatus())) {
+            model.add(linkTo(methodOn(QuizController.class).getQuizById(state.getQuizId())).withRel("quiz-details"));
+        }
+        return model;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,15 +1,29 @@
 package com.courseservice.Service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.courseservice.analytics.QuizAnalytics;
+import com.courseservice.cache.AnswerKey;
+import com.courseservice.cache.AnswerKeyCache;
+import com.courseservice.cache.QuestionSampler;
+import com.courseservice.event.QuizScoresGradedEvent;
+import com.courseservice.leaderboard.LeaderboardService;
+import com.courseservice.migration.QuizStorageMigrator;
 import com.persistence.DTO.*;
 import com.persistence.Entity.*;
 import com.persistence.Repository.*;
+import com.persistence.codec.AnswerCodec;
+import com.persistence.outbox.OutboxWriter;
+import com.persistence.security.CurrentUser;
+import com.persistence.tx.AfterCommit;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -23,12 +37,17 @@ public class QuizService {
 
     private final QuizRepository quizRepository;
     private final QuizQuestionRepository quizQuestionRepository;
-    private final LessonRepository lessonRepository;
     private final CourseRepository courseRepository;
     private final UserRepo userRepo;
     private final QuizSubmissionRepository quizSubmissionRepository;
-    private final LessonProgressRepository lessonProgressRepository;
-    private final ObjectMapper objectMapper;
+    private final EnrollmentRepository enrollmentRepository;
+    private final QuestionSampler questionSampler;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuizAnalytics quizAnalytics;
+    private final LeaderboardService leaderboardService;
+    private final QuizStorageMigrator quizStorageMigrator;
+    private final OutboxWriter outboxWriter;
+    private final PlatformTransactionManager transactionManager;
 
     private static final int DEFAULT_QUIZ_SIZE = 10;
 
@@ -57,6 +76,7 @@ public class QuizService {
                     .build();
             quizQuestionRepository.save(question);
         }
+        questionSampler.evict(course.getId());
 
         QuizDTO responseDto = QuizDTO.builder()
                 .id(quiz.getId())
@@ -76,78 +96,35 @@ public class QuizService {
         return model;
     }
 
-    @Transactional
+    // No surrounding transaction: the lookup and the insert each run in their own, one after
+    // the other, so a request never holds two pooled connections at once
     public EntityModel<QuizDTO> generateFinalQuizAfterCourseCompletion(Long studentId, Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new NoSuchElementException("Course not found: " + courseId));
-
-        List<Lesson> lessons = lessonRepository.findByCourseId(courseId);
-        if (lessons.isEmpty()) {
-            throw new IllegalArgumentException("No lessons found for course " + courseId);
-        }
-
-        List<LessonProgress> completed = lessonProgressRepository
-                .findByEnrollment_Student_IdAndLesson_Course_IdAndIsCompleteTrue(studentId, courseId);
-
-        if (completed.size() < lessons.size()) {
-            throw new IllegalStateException("Course not yet fully completed. Lessons completed: " +
-                    completed.size() + "/" + lessons.size());
-        }
-
-        List<QuizQuestion> questions = quizQuestionRepository.findByCourseId(courseId);
-        if (questions.isEmpty()) {
-            throw new IllegalArgumentException("No quiz questions available for this course");
-        }
-
-        Collections.shuffle(questions);
-        List<QuizQuestion> selected = questions.stream().limit(10).collect(Collectors.toList());
-
-        int totalMarks = selected.stream()
-                .mapToInt(q -> q.getMarks() == null ? 1 : q.getMarks())
-                .sum();
-
-        Quiz quiz = Quiz.builder()
-                .course(course)
-                .title("Final Quiz for " + course.getTitle())
-                .description("Auto-generated after course completion")
-                .totalMarks(totalMarks)
-                .createdAt(LocalDateTime.now())
-                .build();
-        quizRepository.save(quiz);
-
-        for (QuizQuestion q : selected) {
-            QuizQuestion copy = QuizQuestion.builder()
-                    .quiz(quiz)
-                    .course(course)
-                    .questionText(q.getQuestionText())
-                    .optionsJson(q.getOptionsJson())
-                    .correctAnswer(q.getCorrectAnswer())
-                    .marks(q.getMarks())
-                    .build();
-            quizQuestionRepository.save(copy);
-        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        QuizDTO prepared = readOnly.execute(status -> {
+            EnrollmentRepository.LessonTally tally = enrollmentRepository.findLessonTally(studentId, courseId)
+                    .orElseThrow(() -> courseRepository.existsById(courseId)
+                            ? new IllegalStateException("Student " + studentId + " is not enrolled in course " + courseId)
+                            : new NoSuchElementException("Course not found: " + courseId));
+
+            if (tally.getTotal() == 0) {
+                throw new IllegalArgumentException("No lessons found for course " + courseId);
+            }
+            if (tally.getCompleted() < tally.getTotal()) {
+                throw new IllegalStateException("Course not yet fully completed. Lessons completed: " +
+                        tally.getCompleted() + "/" + tally.getTotal());
+            }
 
-        List<QuizQuestionDTO> questionDTOs = selected.stream()
-                .map(q -> QuizQuestionDTO.builder()
-                        .id(q.getId())
-                        .questionText(q.getQuestionText())
-                        .optionsJson(q.getOptionsJson())
-                        .marks(q.getMarks())
-                        .build())
-                .collect(Collectors.toList());
-
-        QuizDTO dto = QuizDTO.builder()
-                .id(quiz.getId())
-                .courseId(course.getId())
-                .title(quiz.getTitle())
-                .description(quiz.getDescription())
-                .totalMarks(totalMarks)
-                .questions(questionDTOs)
-                .build();
+            // Normally already prepared by FinalQuizPregenerator when the student reached the last lesson
+            return quizRepository.findFinalQuiz(studentId, courseId)
+                    .map(quiz -> toFinalQuizDTO(quiz, courseId))
+                    .orElse(null);
+        });
+        QuizDTO dto = prepared != null ? prepared : createOrFindFinalQuiz(studentId, courseId);
 
         EntityModel<QuizDTO> model = EntityModel.of(dto,
                 linkTo(methodOn(com.courseservice.Controller.QuizController.class)
-                        .getQuizById(quiz.getId())).withSelfRel(),
+                        .getQuizById(dto.getId())).withSelfRel(),
                 linkTo(methodOn(com.courseservice.Controller.QuizController.class)
                         .submitQuiz(null)).withRel("submit-quiz"),
                 linkTo(methodOn(com.courseservice.Controller.QuizController.class)
@@ -157,52 +134,48 @@ public class QuizService {
         return model;
     }
 
+    // Speculative path (low-priority pool): no-op when the student already has a final quiz
+    @Transactional
+    public void prepareFinalQuiz(Long studentId, Long courseId) {
+        if (!quizRepository.existsByPreparedFor_IdAndCourse_Id(studentId, courseId)) {
+            createFinalQuiz(studentId, courseId);
+        }
+    }
+
     @Transactional
     public EntityModel<SubmitResponseDTO> submitQuiz(SubmitRequestDTO req) {
-        Quiz quiz = quizRepository.findById(req.getQuizId())
-                .orElseThrow(() -> new NoSuchElementException("Quiz not found: " + req.getQuizId()));
+        AnswerKey answerKey = answerKeyFor(req.getQuizId());
+        Quiz quiz = quizRepository.getReferenceById(req.getQuizId());
 
         User student = userRepo.findById(req.getStudentId())
                 .orElseThrow(() -> new NoSuchElementException("Student not found: " + req.getStudentId()));
 
         Map<Long, String> answers = Optional.ofNullable(req.getAnswers()).orElse(Map.of());
-        List<QuizQuestion> questions = quizQuestionRepository.findByQuizId(quiz.getId());
-
-        int totalMarks = 0;
-        int score = 0;
 
-        for (QuizQuestion q : questions) {
-            int marks = Optional.ofNullable(q.getMarks()).orElse(1);
-            totalMarks += marks;
-
-            String correct = q.getCorrectAnswer();
-            String given = answers.get(q.getId());
-            if (given != null && correct != null && given.trim().equalsIgnoreCase(correct.trim())) {
-                score += marks;
-            }
-        }
-
-        double percentage = totalMarks == 0 ? 0 : (score * 100.0 / totalMarks);
-        boolean passed = percentage >= 50.0;
+        boolean[] attempted = new boolean[answerKey.size()];
+        boolean[] correct = new boolean[answerKey.size()];
+        int totalMarks = answerKey.totalMarks();
+        int score = answerKey.grade(answers, attempted, correct);
 
         QuizSubmission submission = QuizSubmission.builder()
                 .quiz(quiz)
                 .student(student)
-                .answersJson(convertMapToJson(answers))
+                .answers(AnswerCodec.encode(answers))
                 .score(score)
                 .submittedAt(LocalDateTime.now())
                 .build();
 
         submission = quizSubmissionRepository.save(submission);
+        // Aggregates only count submissions that actually committed
+        AfterCommit.run(() -> quizAnalytics.record(req.getQuizId(), answerKey, attempted, correct, score));
+        // This instance ranks it right after commit; the others (and this one again, harmlessly) via Kafka
+        Long studentId = student.getId();
+        AfterCommit.run(() -> leaderboardService.record(req.getQuizId(), studentId, score));
+        outboxWriter.write(LeaderboardService.SCORES_TOPIC, req.getQuizId(), QuizScoresGradedEvent.builder()
+                .scores(List.of(new QuizScoresGradedEvent.Score(req.getQuizId(), studentId, score)))
+                .build());
 
-        SubmitResponseDTO response = SubmitResponseDTO.builder()
-                .submissionId(submission.getId())
-                .score(score)
-                .totalMarks(totalMarks)
-                .percentage(percentage)
-                .passed(passed)
-                .message("Quiz submitted successfully")
-                .build();
+        SubmitResponseDTO response = toSubmitResponse(submission.getId(), score, totalMarks);
 
         EntityModel<SubmitResponseDTO> model = EntityModel.of(response,
                 linkTo(methodOn(com.courseservice.Controller.QuizController.class)
@@ -214,11 +187,123 @@ public class QuizService {
         return model;
     }
 
-    private String convertMapToJson(Map<Long, String> map) {
+    @Transactional(readOnly = true)
+    public QuizSubmissionDTO getSubmission(Long submissionId) {
+        QuizSubmission submission = quizSubmissionRepository.findById(submissionId)
+                .orElseThrow(() -> new NoSuchElementException("Submission not found: " + submissionId));
+
+        // Students only see their own submissions; instructors and admins see any
+        CurrentUser caller = CurrentUser.get();
+        if (!caller.isAdmin() && !caller.isInstructor()
+                && !submission.getStudent().getId().equals(caller.requireUserId(userRepo))) {
+            throw new AccessDeniedException("You can only view your own submissions");
+        }
+
+        return QuizSubmissionDTO.builder()
+                .id(submission.getId())
+                .quizId(submission.getQuiz().getId())
+                .studentId(submission.getStudent().getId())
+                .score(submission.getScore())
+                .submittedAt(submission.getSubmittedAt())
+                .answers(decodeAnswers(submission))
+                .build();
+    }
+
+    public QuizAnalyticsDTO getQuizAnalytics(Long quizId) {
+        return quizAnalytics.analytics(quizId, answerKeyFor(quizId));
+    }
+
+    // Compiled once per quiz; a cached key also proves the quiz exists
+    public AnswerKey answerKeyFor(Long quizId) {
+        return answerKeyCache.get(quizId, this::compileAnswerKey);
+    }
+
+    public SubmitResponseDTO toSubmitResponse(Long submissionId, int score, int totalMarks) {
+        double percentage = totalMarks == 0 ? 0 : (score * 100.0 / totalMarks);
+        return SubmitResponseDTO.builder()
+                .submissionId(submissionId)
+                .score(score)
+                .totalMarks(totalMarks)
+                .percentage(percentage)
+                .passed(percentage >= 50.0)
+                .message("Quiz submitted successfully")
+                .build();
+    }
+
+    // Rows not yet reached by QuizStorageMigrator still carry the JSON form
+    private Map<Long, String> decodeAnswers(QuizSubmission submission) {
+        if (submission.getAnswers() != null) {
+            return AnswerCodec.decode(submission.getAnswers());
+        }
+        return submission.getAnswersJson() == null ? Map.of() : quizStorageMigrator.parseLegacy(submission.getAnswersJson());
+    }
+
+    // FinalQuizPregenerator may be inserting the same quiz right now. The insert gets a transaction
+    // of its own, so losing on uk_quizzes_prepared_for_course just means reading the winner's quiz
+    // in the next one
+    private QuizDTO createOrFindFinalQuiz(Long studentId, Long courseId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
         try {
-            return objectMapper.writeValueAsString(map);
-        } catch (Exception e) {
-            return "{}";
+            return transaction.execute(status -> toFinalQuizDTO(createFinalQuiz(studentId, courseId), courseId));
+        } catch (DataIntegrityViolationException e) {
+            return transaction.execute(status -> quizRepository.findFinalQuiz(studentId, courseId)
+                    .map(quiz -> toFinalQuizDTO(quiz, courseId)))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    // Called inside the transaction that loaded the quiz, while its questions can still be fetched
+    private QuizDTO toFinalQuizDTO(Quiz quiz, Long courseId) {
+        List<QuizQuestionDTO> questionDTOs = quiz.getReferencedQuestions().stream()
+                .map(q -> QuizQuestionDTO.builder()
+                        .id(q.getId())
+                        .questionText(q.getQuestionText())
+                        .optionsJson(q.getOptionsJson())
+                        .marks(q.getMarks())
+                        .build())
+                .collect(Collectors.toList());
+
+        return QuizDTO.builder()
+                .id(quiz.getId())
+                .courseId(courseId)
+                .title(quiz.getTitle())
+                .description(quiz.getDescription())
+                .totalMarks(quiz.getTotalMarks())
+                .questions(questionDTOs)
+                .build();
+    }
+
+    private Quiz createFinalQuiz(Long studentId, Long courseId) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new NoSuchElementException("Course not found: " + courseId));
+
+        // Sample ids from the cached id array, then load just those rows
+        List<Long> sampledIds = questionSampler.sample(courseId, DEFAULT_QUIZ_SIZE);
+        if (sampledIds.isEmpty()) {
+            throw new IllegalArgumentException("No quiz questions available for this course");
+        }
+        List<QuizQuestion> selected = quizQuestionRepository.findAllById(sampledIds);
+
+        int totalMarks = selected.stream()
+                .mapToInt(q -> q.getMarks() == null ? 1 : q.getMarks())
+                .sum();
+
+        Quiz quiz = Quiz.builder()
+                .course(course)
+                .title("Final Quiz for " + course.getTitle())
+                .description("Auto-generated after course completion")
+                .totalMarks(totalMarks)
+                .createdAt(LocalDateTime.now())
+                .referencedQuestions(new ArrayList<>(selected))
+                .preparedFor(userRepo.getReferenceById(studentId))
+                .build();
+        return quizRepository.save(quiz);
+    }
+
+    private AnswerKey compileAnswerKey(Long quizId) {
+        if (!quizRepository.existsById(quizId)) {
+            throw new NoSuchElementException("Quiz not found: " + quizId);
         }
+        return AnswerKey.compile(quizQuestionRepository.findAllForQuiz(quizId));
     }
 }
@@ -0,0 +1,225 @@
+package com.courseservice.analytics;
+
+import com.courseservice.cache.AnswerKey;
+import com.persistence.DTO.QuizAnalyticsDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streaming per-question analytics fed by every graded submission. Aggregates live in
+ * memory (see {@link QuizStats}); checkpoints add each instance's increments to
+ * quiz_stats / quiz_question_stats and then re-read the totals, so several instances
+ * accumulate into the same rows. Entries with nothing to write are re-read as well, so
+ * an instance that takes no submissions still follows the others. The first touch of a
+ * quiz after a restart resumes from the stored totals; increments not yet checkpointed
+ * when an instance dies are lost.
+ */
+@Slf4j
+@Component
+public class QuizAnalytics {
+
+    private static final String UPSERT_QUIZ_SQL = """
+            INSERT INTO quiz_stats (quiz_id, submissions, score_sum, score_sq_sum, score_histogram, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (quiz_id) DO UPDATE SET submissions = quiz_stats.submissions + EXCLUDED.submissions,
+                score_sum = quiz_stats.score_sum + EXCLUDED.score_sum,
+                score_sq_sum = quiz_stats.score_sq_sum + EXCLUDED.score_sq_sum,
+                score_histogram = ARRAY(SELECT COALESCE(s.stored, 0) + COALESCE(s.added, 0)
+                    FROM unnest(quiz_stats.score_histogram, EXCLUDED.score_histogram)
+                    WITH ORDINALITY AS s(stored, added, n) ORDER BY s.n),
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String UPSERT_QUESTION_SQL = """
+            INSERT INTO quiz_question_stats (quiz_id, question_id, attempts, correct_count, correct_score_sum)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (quiz_id, question_id) DO UPDATE SET attempts = quiz_question_stats.attempts + EXCLUDED.attempts,
+                correct_count = quiz_question_stats.correct_count + EXCLUDED.correct_count,
+                correct_score_sum = quiz_question_stats.correct_score_sum + EXCLUDED.correct_score_sum
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, QuizStats> byQuiz = new ConcurrentHashMap<>();
+
+    public QuizAnalytics(JdbcTemplate jdbcTemplate, DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTables() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/quiz-analytics.sql")).execute(dataSource);
+        } catch (RuntimeException e) {
+            log.warn("Could not create quiz analytics tables: {}", e.getMessage());
+        }
+    }
+
+    public void record(Long quizId, AnswerKey key, boolean[] attempted, boolean[] correct, int score) {
+        int percent = key.totalMarks() == 0 ? 0 : (int) Math.round(score * 100.0 / key.totalMarks());
+        statsFor(quizId, key).record(attempted, correct, Math.min(100, Math.max(0, percent)));
+    }
+
+    // O(questions): reads the aggregates, never the submissions
+    public QuizAnalyticsDTO analytics(Long quizId, AnswerKey key) {
+        QuizStats stats = statsFor(quizId, key).copy();
+
+        List<Long> bands = new ArrayList<>(10);
+        for (int band = 0; band < 10; band++) {
+            long count = 0;
+            for (int p = band * 10; p < (band == 9 ? QuizStats.BUCKETS : band * 10 + 10); p++) {
+                count += stats.histogram[p];
+            }
+            bands.add(count);
+        }
+
+        List<QuizAnalyticsDTO.QuestionStatsDTO> questions = new ArrayList<>(stats.questionIds.length);
+        for (int i = 0; i < stats.questionIds.length; i++) {
+            questions.add(QuizAnalyticsDTO.QuestionStatsDTO.builder()
+                    .questionId(stats.questionIds[i])
+                    .attempts(stats.attempts[i])
+                    .correct(stats.correct[i])
+                    .difficulty(stats.submissions == 0 ? null : (double) stats.correct[i] / stats.submissions)
+                    .discrimination(stats.discrimination(i))
+                    .build());
+        }
+
+        return QuizAnalyticsDTO.builder()
+                .quizId(quizId)
+                .submissions(stats.submissions)
+                .meanPercentage(stats.submissions == 0 ? 0 : (double) stats.scoreSum / stats.submissions)
+                .medianPercentage(stats.percentile(0.5))
+                .p90Percentage(stats.percentile(0.9))
+                .scoreHistogram(bands)
+                .questions(questions)
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.analytics.checkpoint-interval-ms:30000}")
+    public void checkpoint() {
+        for (QuizStats live : byQuiz.values()) {
+            if (live.isDirty()) {
+                QuizStats delta = live.takePending();
+                try {
+                    // Both tables or neither, so a failed checkpoint can simply be retried
+                    transactionTemplate.executeWithoutResult(status -> write(delta));
+                } catch (RuntimeException e) {
+                    live.restorePending(delta);
+                    log.warn("Could not checkpoint analytics of quiz {}: {}", live.quizId, e.getMessage());
+                    continue;
+                }
+            }
+            // Pick up what other instances checkpointed meanwhile, also on instances that
+            // only serve reads for this quiz
+            QuizStats stored = new QuizStats(live.quizId, live.questionIds);
+            if (readCheckpoint(stored)) {
+                live.rebase(stored);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        checkpoint();
+    }
+
+    private QuizStats statsFor(Long quizId, AnswerKey key) {
+        QuizStats stats = byQuiz.computeIfAbsent(quizId, id -> load(id, key));
+        if (stats.questionIds.length != key.size()) {
+            // The quiz's questions changed since these stats were built: re-align from the
+            // checkpoint, keeping whatever it could not write
+            checkpoint();
+            stats = byQuiz.compute(quizId, (id, old) -> {
+                QuizStats fresh = load(id, key);
+                if (old != null) fresh.carryPendingFrom(old);
+                return fresh;
+            });
+        }
+        return stats;
+    }
+
+    private QuizStats load(Long quizId, AnswerKey key) {
+        long[] questionIds = new long[key.size()];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionIds[i] = key.questionIdAt(i);
+        }
+        QuizStats stats = new QuizStats(quizId, questionIds);
+        readCheckpoint(stats);
+        return stats;
+    }
+
+    private boolean readCheckpoint(QuizStats stats) {
+        long quizId = stats.quizId;
+        long[] questionIds = stats.questionIds;
+        try {
+            jdbcTemplate.query("SELECT submissions, score_sum, score_sq_sum, score_histogram FROM quiz_stats WHERE quiz_id = ?",
+                    rs -> {
+                        stats.submissions = rs.getLong(1);
+                        stats.scoreSum = rs.getLong(2);
+                        stats.scoreSqSum = rs.getLong(3);
+                        Long[] histogram = (Long[]) rs.getArray(4).getArray();
+                        for (int p = 0; p < Math.min(histogram.length, QuizStats.BUCKETS); p++) {
+                            stats.histogram[p] = histogram[p];
+                        }
+                    }, quizId);
+
+            jdbcTemplate.query("SELECT question_id, attempts, correct_count, correct_score_sum FROM quiz_question_stats WHERE quiz_id = ?",
+                    rs -> {
+                        int i = Arrays.binarySearch(questionIds, rs.getLong(1));
+                        if (i < 0) return; // question no longer part of the quiz
+                        stats.attempts[i] = rs.getLong(2);
+                        stats.correct[i] = rs.getLong(3);
+                        stats.correctScoreSum[i] = rs.getLong(4);
+                    }, quizId);
+        } catch (RuntimeException e) {
+            log.warn("Could not load analytics checkpoint of quiz {}: {}", quizId, e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    // stats holds increments: the upserts add them to whatever is stored
+    private void write(QuizStats stats) {
+        Long[] histogram = Arrays.stream(stats.histogram).boxed().toArray(Long[]::new);
+        jdbcTemplate.update(con -> {
+            Array array = con.createArrayOf("bigint", histogram);
+            var ps = con.prepareStatement(UPSERT_QUIZ_SQL);
+            ps.setLong(1, stats.quizId);
+            ps.setLong(2, stats.submissions);
+            ps.setLong(3, stats.scoreSum);
+            ps.setLong(4, stats.scoreSqSum);
+            ps.setArray(5, array);
+            ps.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+            return ps;
+        });
+
+        List<Object[]> rows = new ArrayList<>(stats.questionIds.length);
+        for (int i = 0; i < stats.questionIds.length; i++) {
+            if (stats.attempts[i] == 0 && stats.correct[i] == 0) continue;
+            rows.add(new Object[]{stats.quizId, stats.questionIds[i], stats.attempts[i], stats.correct[i], stats.correctScoreSum[i]});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_QUESTION_SQL, rows);
+    }
+}
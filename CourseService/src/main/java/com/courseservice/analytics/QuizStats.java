@@ -0,0 +1,153 @@
+package com.courseservice.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Running aggregates for one quiz. Scores are whole percentages (0-100), so the
+ * histogram is 101 exact buckets. Per question: attempts, correct answers and the
+ * sum of quiz scores of the submissions that got it right (for the discrimination index).
+ * Besides the totals, a live instance keeps the increments recorded since its last
+ * checkpoint; checkpoints add those to the stored totals, so instances never overwrite
+ * each other. All access goes through the instance lock; a record() is O(questions).
+ */
+final class QuizStats {
+
+    static final int BUCKETS = 101;
+
+    final long quizId;
+    final long[] questionIds;
+    final long[] attempts;
+    final long[] correct;
+    final long[] correctScoreSum;
+    final long[] histogram = new long[BUCKETS];
+    long submissions;
+    long scoreSum;
+    long scoreSqSum;
+    private QuizStats pending;
+
+    QuizStats(long quizId, long[] questionIds) {
+        this(quizId, questionIds, true);
+    }
+
+    private QuizStats(long quizId, long[] questionIds, boolean trackPending) {
+        this.quizId = quizId;
+        this.questionIds = questionIds;
+        this.attempts = new long[questionIds.length];
+        this.correct = new long[questionIds.length];
+        this.correctScoreSum = new long[questionIds.length];
+        this.pending = trackPending ? new QuizStats(quizId, questionIds, false) : null;
+    }
+
+    synchronized void record(boolean[] attempted, boolean[] right, int percent) {
+        add(attempted, right, percent);
+        pending.add(attempted, right, percent);
+    }
+
+    // Consistent copy of the totals for reads
+    synchronized QuizStats copy() {
+        QuizStats copy = new QuizStats(quizId, questionIds, false);
+        copy.addAll(this);
+        return copy;
+    }
+
+    synchronized boolean isDirty() {
+        return pending.submissions > 0;
+    }
+
+    // Hands the increments since the last checkpoint to the caller and starts collecting anew
+    synchronized QuizStats takePending() {
+        QuizStats delta = pending;
+        pending = new QuizStats(quizId, questionIds, false);
+        return delta;
+    }
+
+    // The checkpoint of these increments failed: keep them for the next one
+    synchronized void restorePending(QuizStats delta) {
+        pending.addAll(delta);
+    }
+
+    // Adopts the stored totals (every instance's checkpoints) plus what is not written yet
+    synchronized void rebase(QuizStats stored) {
+        Arrays.fill(attempts, 0);
+        Arrays.fill(correct, 0);
+        Arrays.fill(correctScoreSum, 0);
+        Arrays.fill(histogram, 0);
+        submissions = 0;
+        scoreSum = 0;
+        scoreSqSum = 0;
+        addAll(stored);
+        addAll(pending);
+    }
+
+    // The quiz's questions changed: takes over the old layout's unwritten increments,
+    // matched by question id, into both the totals and what the next checkpoint writes
+    synchronized void carryPendingFrom(QuizStats old) {
+        QuizStats delta = old.takePending();
+        QuizStats aligned = new QuizStats(quizId, questionIds, false);
+        for (int j = 0; j < delta.questionIds.length; j++) {
+            int i = Arrays.binarySearch(questionIds, delta.questionIds[j]);
+            if (i < 0) continue; // question no longer part of the quiz
+            aligned.attempts[i] = delta.attempts[j];
+            aligned.correct[i] = delta.correct[j];
+            aligned.correctScoreSum[i] = delta.correctScoreSum[j];
+        }
+        System.arraycopy(delta.histogram, 0, aligned.histogram, 0, BUCKETS);
+        aligned.submissions = delta.submissions;
+        aligned.scoreSum = delta.scoreSum;
+        aligned.scoreSqSum = delta.scoreSqSum;
+        addAll(aligned);
+        pending.addAll(aligned);
+    }
+
+    private void add(boolean[] attempted, boolean[] right, int percent) {
+        submissions++;
+        scoreSum += percent;
+        scoreSqSum += (long) percent * percent;
+        histogram[percent]++;
+        for (int i = 0; i < questionIds.length; i++) {
+            if (attempted[i]) attempts[i]++;
+            if (right[i]) {
+                correct[i]++;
+                correctScoreSum[i] += percent;
+            }
+        }
+    }
+
+    private void addAll(QuizStats other) {
+        for (int i = 0; i < questionIds.length; i++) {
+            attempts[i] += other.attempts[i];
+            correct[i] += other.correct[i];
+            correctScoreSum[i] += other.correctScoreSum[i];
+        }
+        for (int p = 0; p < BUCKETS; p++) {
+            histogram[p] += other.histogram[p];
+        }
+        submissions += other.submissions;
+        scoreSum += other.scoreSum;
+        scoreSqSum += other.scoreSqSum;
+    }
+
+    int percentile(double fraction) {
+        long target = (long) Math.ceil(submissions * fraction);
+        long seen = 0;
+        for (int p = 0; p < BUCKETS; p++) {
+            seen += histogram[p];
+            if (seen >= target && seen > 0) return p;
+        }
+        return 0;
+    }
+
+    Double discrimination(int i) {
+        long c = correct[i];
+        if (submissions < 2 || c == 0 || c == submissions) return null;
+
+        double mean = (double) scoreSum / submissions;
+        double variance = (double) scoreSqSum / submissions - mean * mean;
+        if (variance <= 0) return null;
+
+        double meanCorrect = (double) correctScoreSum[i] / c;
+        double meanWrong = (double) (scoreSum - correctScoreSum[i]) / (submissions - c);
+        double p = (double) c / submissions;
+        return (meanCorrect - meanWrong) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+    }
+}
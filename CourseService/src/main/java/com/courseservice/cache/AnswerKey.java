@@ -0,0 +1,96 @@
+package com.courseservice.cache;
+
+import com.persistence.Entity.QuizQuestion;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled grading data for one quiz: question ids sorted ascending, with the trimmed
+ * correct answer and marks at the same ordinal. Immutable, so one instance is shared
+ * by every concurrent submission of the quiz.
+ */
+public final class AnswerKey {
+
+    private final long[] questionIds;
+    private final String[] answers;
+    private final int[] marks;
+    private final int totalMarks;
+
+    private AnswerKey(long[] questionIds, String[] answers, int[] marks, int totalMarks) {
+        this.questionIds = questionIds;
+        this.answers = answers;
+        this.marks = marks;
+        this.totalMarks = totalMarks;
+    }
+
+    public static AnswerKey compile(List<QuizQuestion> questions) {
+        List<QuizQuestion> sorted = questions.stream()
+                .sorted(Comparator.comparing(QuizQuestion::getId))
+                .toList();
+
+        int n = sorted.size();
+        long[] ids = new long[n];
+        String[] answers = new String[n];
+        int[] marks = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            QuizQuestion q = sorted.get(i);
+            ids[i] = q.getId();
+            answers[i] = q.getCorrectAnswer() == null ? null : q.getCorrectAnswer().trim();
+            marks[i] = q.getMarks() == null ? 1 : q.getMarks();
+            total += marks[i];
+        }
+        return new AnswerKey(ids, answers, marks, total);
+    }
+
+    public int totalMarks() {
+        return totalMarks;
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+
+    public long questionIdAt(int ordinal) {
+        return questionIds[ordinal];
+    }
+
+    public int grade(Map<Long, String> given) {
+        return grade(given, null, null);
+    }
+
+    // Same rule as before (trimmed, case-insensitive), but without trim()/lowercase copies.
+    // attempted/correct, when passed (length size()), receive per-ordinal outcomes for analytics.
+    public int grade(Map<Long, String> given, boolean[] attempted, boolean[] correct) {
+        int score = 0;
+        for (Map.Entry<Long, String> entry : given.entrySet()) {
+            Long questionId = entry.getKey();
+            String answer = entry.getValue();
+            if (questionId == null || answer == null) continue;
+
+            int i = Arrays.binarySearch(questionIds, questionId);
+            if (i < 0) continue;
+            if (attempted != null) attempted[i] = true;
+            if (matches(answer, answers[i])) {
+                score += marks[i];
+                if (correct != null) correct[i] = true;
+            }
+        }
+        return score;
+    }
+
+    private static boolean matches(String given, String correct) {
+        if (correct == null) return false;
+
+        int start = 0;
+        int end = given.length();
+        while (start < end && given.charAt(start) <= ' ') start++;
+        while (end > start && given.charAt(end - 1) <= ' ') end--;
+
+        return end - start == correct.length()
+                && given.regionMatches(true, start, correct, 0, correct.length());
+    }
+}
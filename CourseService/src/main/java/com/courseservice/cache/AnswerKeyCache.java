@@ -0,0 +1,34 @@
+package com.courseservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+// Compiled answer keys by quiz id, so grading a submission reads no question rows.
+// A quiz's questions are fixed once it is created (new questions always come with a new quiz),
+// so a key only goes stale when its quiz is deleted along with its course; see CourseService.deleteCourse
+@Component
+public class AnswerKeyCache {
+
+    private final Cache<Long, AnswerKey> keys;
+
+    public AnswerKeyCache(@Value("${quiz.answer-keys.max-entries:5000}") long maxEntries,
+                          @Value("${quiz.answer-keys.ttl-minutes:60}") long ttlMinutes) {
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    public AnswerKey get(Long quizId, Function<Long, AnswerKey> compiler) {
+        return keys.get(quizId, compiler);
+    }
+
+    public void evict(Long quizId) {
+        keys.invalidate(quizId);
+    }
+}
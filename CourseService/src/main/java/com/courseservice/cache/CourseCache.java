@@ -0,0 +1,122 @@
+package com.courseservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.persistence.DTO.CacheStatsDTO;
+import com.persistence.DTO.CourseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for CourseDTOs.
+ * Tier 1: on-heap W-TinyLFU (Caffeine). Tier 2 (optional): off-heap store that
+ * receives tier-1 size evictions. Keyset pages are cached separately and dropped
+ * wholesale on any course change.
+ */
+@Component
+public class CourseCache {
+
+    private final ObjectMapper objectMapper;
+    private final OffHeapCourseStore offHeap;
+    private final Cache<Long, CourseDTO> heap;
+    private final Cache<String, CoursePage> pages;
+
+    public CourseCache(ObjectMapper objectMapper,
+                       @Value("${course.cache.heap-max-entries:10000}") long heapMaxEntries,
+                       @Value("${course.cache.page-max-entries:256}") long pageMaxEntries,
+                       @Value("${course.cache.off-heap-enabled:false}") boolean offHeapEnabled,
+                       @Value("${course.cache.off-heap-max-bytes:67108864}") long offHeapMaxBytes) {
+        this.objectMapper = objectMapper;
+        this.offHeap = offHeapEnabled ? new OffHeapCourseStore(offHeapMaxBytes) : null;
+        this.heap = Caffeine.newBuilder()
+                .maximumSize(heapMaxEntries)
+                .recordStats()
+                // Synchronous, under the entry's lock: a write here is ordered with invalidate() in
+                // evict(), so a course evicted for a change can't be written back to the off-heap tier
+                .evictionListener((Long id, CourseDTO dto, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE && offHeap != null && dto != null) {
+                        offHeap.put(id, serialize(dto));
+                    }
+                })
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(pageMaxEntries)
+                .recordStats()
+                .build();
+    }
+
+    public CourseDTO get(Long id, Function<Long, CourseDTO> loader) {
+        return heap.get(id, key -> {
+            if (offHeap != null) {
+                byte[] bytes = offHeap.get(key);
+                if (bytes != null) return deserialize(bytes);
+            }
+            return loader.apply(key);
+        });
+    }
+
+    public CoursePage getPage(String key, Supplier<CoursePage> loader) {
+        return pages.get(key, k -> loader.get());
+    }
+
+    public void evict(Long id) {
+        heap.invalidate(id);
+        if (offHeap != null) offHeap.remove(id);
+        pages.invalidateAll();
+    }
+
+    public void evictPages() {
+        pages.invalidateAll();
+    }
+
+    public List<CacheStatsDTO> stats() {
+        List<CacheStatsDTO> stats = new ArrayList<>();
+        stats.add(toDTO("heap", heap.stats(), heap.estimatedSize()));
+        stats.add(toDTO("pages", pages.stats(), pages.estimatedSize()));
+        if (offHeap != null) {
+            stats.add(CacheStatsDTO.builder()
+                    .tier("off-heap")
+                    .hits(offHeap.hits.sum())
+                    .misses(offHeap.misses.sum())
+                    .evictions(offHeap.evictions.sum())
+                    .size(offHeap.size())
+                    .build());
+        }
+        return stats;
+    }
+
+    private static CacheStatsDTO toDTO(String tier, CacheStats stats, long size) {
+        return CacheStatsDTO.builder()
+                .tier(tier)
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .size(size)
+                .build();
+    }
+
+    private byte[] serialize(CourseDTO dto) {
+        try {
+            return objectMapper.writeValueAsBytes(dto);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not serialize course " + dto.getId(), e);
+        }
+    }
+
+    private CourseDTO deserialize(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, CourseDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not deserialize cached course", e);
+        }
+    }
+}
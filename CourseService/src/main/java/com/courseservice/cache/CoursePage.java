@@ -0,0 +1,9 @@
+package com.courseservice.cache;
+
+import com.persistence.DTO.CourseDTO;
+
+import java.util.List;
+
+// One keyset page of the catalog; nextCursor is null on the last page
+public record CoursePage(List<CourseDTO> courses, String nextCursor) {
+}
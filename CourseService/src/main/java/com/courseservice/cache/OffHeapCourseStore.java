@@ -0,0 +1,90 @@
+package com.courseservice.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Second cache tier: serialized CourseDTOs kept off the GC'd heap in one direct arena,
+ * allocated once and carved into fixed-size blocks. An entry occupies as many blocks as
+ * it needs; removed and evicted entries return their blocks to an explicit free list,
+ * so no direct buffer is ever allocated or left for the Cleaner after startup.
+ * Bounded by the arena size, evicts oldest first.
+ */
+class OffHeapCourseStore {
+
+    static final int BLOCK_SIZE = 256;
+
+    private record Entry(int[] blocks, int length) {}
+
+    private final ByteBuffer arena;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private final Map<Long, Entry> entries = new LinkedHashMap<>();
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder evictions = new LongAdder();
+
+    OffHeapCourseStore(long maxBytes) {
+        int blockCount = (int) Math.min(Integer.MAX_VALUE / BLOCK_SIZE, maxBytes / BLOCK_SIZE);
+        this.arena = ByteBuffer.allocateDirect(blockCount * BLOCK_SIZE);
+        this.freeBlocks = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            freeBlocks[i] = blockCount - 1 - i;
+        }
+        this.freeCount = blockCount;
+    }
+
+    synchronized byte[] get(Long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+
+        byte[] bytes = new byte[entry.length()];
+        for (int i = 0, offset = 0; offset < bytes.length; i++, offset += BLOCK_SIZE) {
+            arena.get(entry.blocks()[i] * BLOCK_SIZE, bytes, offset, Math.min(BLOCK_SIZE, bytes.length - offset));
+        }
+        return bytes;
+    }
+
+    synchronized void put(Long id, byte[] bytes) {
+        int needed = Math.max(1, (bytes.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        if (needed > freeBlocks.length) return;
+
+        release(entries.remove(id));
+        Iterator<Entry> oldest = entries.values().iterator();
+        while (freeCount < needed && oldest.hasNext()) {
+            release(oldest.next());
+            oldest.remove();
+            evictions.increment();
+        }
+
+        int[] blocks = new int[needed];
+        for (int i = 0, offset = 0; i < needed; i++, offset += BLOCK_SIZE) {
+            blocks[i] = freeBlocks[--freeCount];
+            arena.put(blocks[i] * BLOCK_SIZE, bytes, offset, Math.min(BLOCK_SIZE, bytes.length - offset));
+        }
+        entries.put(id, new Entry(blocks, bytes.length));
+    }
+
+    synchronized void remove(Long id) {
+        release(entries.remove(id));
+    }
+
+    synchronized long size() {
+        return entries.size();
+    }
+
+    private void release(Entry entry) {
+        if (entry == null) return;
+        for (int block : entry.blocks()) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+}
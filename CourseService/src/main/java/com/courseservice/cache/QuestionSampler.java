@@ -0,0 +1,59 @@
+package com.courseservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.persistence.Repository.QuizQuestionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks N random question ids of a course without loading the question bank.
+ * Each course's ids are cached as a long[]; a sample is k distinct indexes drawn
+ * with Floyd's algorithm, so it costs O(k) regardless of bank size.
+ * Local writes evict immediately, other instances pick new questions up on expiry.
+ */
+@Component
+public class QuestionSampler {
+
+    private final LoadingCache<Long, long[]> idsByCourse;
+
+    public QuestionSampler(QuizQuestionRepository quizQuestionRepository,
+                           @Value("${quiz.sampler.max-courses:1000}") long maxCourses,
+                           @Value("${quiz.sampler.ttl-minutes:10}") long ttlMinutes) {
+        this.idsByCourse = Caffeine.newBuilder()
+                .maximumSize(maxCourses)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build(courseId -> quizQuestionRepository.findIdsByCourseId(courseId).stream()
+                        .mapToLong(Long::longValue)
+                        .toArray());
+    }
+
+    public List<Long> sample(Long courseId, int count) {
+        long[] ids = idsByCourse.get(courseId);
+        int k = Math.min(count, ids.length);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Set<Integer> picked = new HashSet<>(k * 2);
+        for (int j = ids.length - k; j < ids.length; j++) {
+            int t = random.nextInt(j + 1);
+            picked.add(picked.contains(t) ? j : t);
+        }
+
+        List<Long> sample = new ArrayList<>(k);
+        for (int index : picked) {
+            sample.add(ids[index]);
+        }
+        return sample;
+    }
+
+    public void evict(Long courseId) {
+        idsByCourse.invalidate(courseId);
+    }
+}
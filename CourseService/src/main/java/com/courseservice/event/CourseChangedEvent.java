@@ -0,0 +1,13 @@
+package com.courseservice.event;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseChangedEvent {
+    private Long courseId;
+    private String changeType; // UPDATED | DELETED
+}
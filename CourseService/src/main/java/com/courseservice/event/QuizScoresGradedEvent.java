@@ -0,0 +1,26 @@
+package com.courseservice.event;
+
+import lombok.*;
+
+import java.util.List;
+
+// Graded scores broadcast to every CourseService instance, so each one keeps its leaderboards complete
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuizScoresGradedEvent {
+    private List<Score> scores;
+
+    @Builder
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Score {
+        private Long quizId;
+        private Long studentId;
+        private Integer score;
+    }
+}
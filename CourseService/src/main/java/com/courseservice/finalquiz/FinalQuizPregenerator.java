@@ -0,0 +1,80 @@
+package com.courseservice.finalquiz;
+
+import com.courseservice.Service.QuizService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds a student's final quiz ahead of time, once they are within
+ * {@code quiz.pregeneration.lessons-remaining} lessons of finishing the course, so the click
+ * after the last lesson only has to look the quiz up. The work is speculative: it runs on a
+ * few minimum-priority threads and is dropped when the queue is full, in which case the click
+ * simply generates the quiz itself.
+ */
+@Slf4j
+@Component
+public class FinalQuizPregenerator {
+
+    private final QuizService quizService;
+    private final int lessonsRemainingThreshold;
+    private final ThreadPoolExecutor executor;
+    // (student, course) pairs queued or running, so duplicate events collapse into one job
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public FinalQuizPregenerator(QuizService quizService,
+                                 @Value("${quiz.pregeneration.lessons-remaining:1}") int lessonsRemainingThreshold,
+                                 @Value("${quiz.pregeneration.threads:2}") int threads,
+                                 @Value("${quiz.pregeneration.queue-capacity:10000}") int queueCapacity) {
+        this.quizService = quizService;
+        this.lessonsRemainingThreshold = lessonsRemainingThreshold;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "final-quiz-pregen-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    t.setPriority(Thread.MIN_PRIORITY);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    public void onProgress(Long studentId, Long courseId, Integer lessonsRemaining) {
+        if (studentId == null || courseId == null || lessonsRemaining == null
+                || lessonsRemaining > lessonsRemainingThreshold) {
+            return;
+        }
+        String key = studentId + ":" + courseId;
+        if (!pending.add(key)) return;
+
+        try {
+            executor.execute(() -> prepare(key, studentId, courseId));
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+        }
+    }
+
+    private void prepare(String key, Long studentId, Long courseId) {
+        try {
+            quizService.prepareFinalQuiz(studentId, courseId);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance (or the student's own click) created it first
+        } catch (RuntimeException e) {
+            log.debug("Could not pre-generate final quiz for student {} course {}: {}", studentId, courseId, e.getMessage());
+        } finally {
+            pending.remove(key);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.courseservice.leaderboard;
+
+import com.persistence.DTO.LeaderboardDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One leaderboard: each student's current score plus the ranked index over those scores
+final class Board {
+
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final RankedScores ranked = new RankedScores();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Keeps the student's best score. Returns how much it improved, 0 for a first
+     * entry at score 0, or -1 when the board did not change.
+     */
+    long offerBest(long studentId, long score) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(studentId);
+            if (previous != null && previous >= score) return -1;
+            set(studentId, previous, score);
+            return previous == null ? score : score - previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void add(long studentId, long delta) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(studentId);
+            set(studentId, previous, (previous == null ? 0 : previous) + delta);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<LeaderboardDTO.EntryDTO> top(int k) {
+        lock.readLock().lock();
+        try {
+            List<LeaderboardDTO.EntryDTO> entries = new ArrayList<>(k);
+            int rank = 0;
+            for (long[] entry : ranked.top(k)) {
+                entries.add(LeaderboardDTO.EntryDTO.builder()
+                        .rank(++rank)
+                        .studentId(entry[1])
+                        .score(entry[0])
+                        .build());
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Optional<LeaderboardDTO.EntryDTO> entryOf(long studentId) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(studentId);
+            if (score == null) return Optional.empty();
+            return Optional.of(LeaderboardDTO.EntryDTO.builder()
+                    .rank(ranked.rankOf(score, studentId))
+                    .studentId(studentId)
+                    .score(score)
+                    .build());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return ranked.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void set(long studentId, Long previous, long score) {
+        if (previous != null) ranked.remove(previous, studentId);
+        ranked.insert(score, studentId);
+        scores.put(studentId, score);
+    }
+}
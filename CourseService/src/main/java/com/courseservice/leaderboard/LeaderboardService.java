@@ -0,0 +1,102 @@
+package com.courseservice.leaderboard;
+
+import com.persistence.DTO.LeaderboardDTO;
+import com.persistence.Repository.QuizRepository;
+import com.persistence.Repository.QuizSubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory leaderboards: per quiz a student's best score, per course the sum of their
+ * best scores over the course's quizzes. Rebuilt from quiz_submissions at startup and then
+ * fed by every graded submission of every instance (broadcast on {@link #SCORES_TOPIC},
+ * see LeaderboardListener), so ranking requests never sort the submissions table.
+ * record() keeps maxima only, so a score that arrives twice or out of order changes nothing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    public static final String SCORES_TOPIC = "quiz-scores-graded-topic";
+
+    private static final int MAX_TOP = 100;
+
+    private final QuizSubmissionRepository quizSubmissionRepository;
+    private final QuizRepository quizRepository;
+
+    private final Map<Long, Board> quizBoards = new ConcurrentHashMap<>();
+    private final Map<Long, Board> courseBoards = new ConcurrentHashMap<>();
+    private final Map<Long, Long> courseOfQuiz = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        int rows = 0;
+        for (QuizSubmissionRepository.BestScore best : quizSubmissionRepository.findBestScores()) {
+            courseOfQuiz.putIfAbsent(best.getQuizId(), best.getCourseId());
+            record(best.getQuizId(), best.getStudentId(), best.getBestScore());
+            rows++;
+        }
+        log.info("Leaderboards rebuilt from {} best scores ({} quizzes, {} courses)",
+                rows, quizBoards.size(), courseBoards.size());
+    }
+
+    // Improvements only: a worse attempt leaves both boards untouched
+    public void record(Long quizId, Long studentId, Integer score) {
+        if (quizId == null || studentId == null || score == null) return;
+
+        long delta = quizBoards.computeIfAbsent(quizId, id -> new Board()).offerBest(studentId, score);
+        if (delta < 0) return;
+
+        Long courseId = courseOfQuiz.computeIfAbsent(quizId, id -> quizRepository.findCourseIdById(id).orElse(null));
+        if (courseId != null) {
+            courseBoards.computeIfAbsent(courseId, id -> new Board()).add(studentId, delta);
+        }
+    }
+
+    public LeaderboardDTO quizLeaderboard(Long quizId, int top) {
+        return toDTO("QUIZ", quizId, quizBoards.get(quizId), top);
+    }
+
+    public LeaderboardDTO courseLeaderboard(Long courseId, int top) {
+        return toDTO("COURSE", courseId, courseBoards.get(courseId), top);
+    }
+
+    public LeaderboardDTO.EntryDTO quizRank(Long quizId, Long studentId) {
+        return rank(quizBoards.get(quizId), studentId, "quiz " + quizId);
+    }
+
+    public LeaderboardDTO.EntryDTO courseRank(Long courseId, Long studentId) {
+        return rank(courseBoards.get(courseId), studentId, "course " + courseId);
+    }
+
+    private LeaderboardDTO.EntryDTO rank(Board board, Long studentId, String scope) {
+        if (board == null) {
+            throw new NoSuchElementException("No scores recorded for " + scope);
+        }
+        return board.entryOf(studentId)
+                .orElseThrow(() -> new NoSuchElementException("Student " + studentId + " has no score for " + scope));
+    }
+
+    private LeaderboardDTO toDTO(String scope, Long scopeId, Board board, int top) {
+        if (board == null) {
+            throw new NoSuchElementException("No scores recorded for " + scope.toLowerCase() + " " + scopeId);
+        }
+        if (top < 1) {
+            throw new IllegalArgumentException("top must be at least 1");
+        }
+        return LeaderboardDTO.builder()
+                .scope(scope)
+                .scopeId(scopeId)
+                .participants(board.size())
+                .entries(board.top(Math.min(top, MAX_TOP)))
+                .build();
+    }
+}
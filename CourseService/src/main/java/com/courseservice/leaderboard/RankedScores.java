@@ -0,0 +1,142 @@
+package com.courseservice.leaderboard;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic treap over (score desc, studentId asc). Every node knows its subtree
+ * size, so insert, remove and rank are O(log n) expected and top-K is O(log n + K).
+ * Not thread-safe; {@link Board} guards it.
+ */
+final class RankedScores {
+
+    private static final class Node {
+        final long score;
+        final long studentId;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long score, long studentId) {
+            this.score = score;
+            this.studentId = studentId;
+        }
+    }
+
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(long score, long studentId) {
+        root = insert(root, new Node(score, studentId));
+    }
+
+    void remove(long score, long studentId) {
+        root = remove(root, score, studentId);
+    }
+
+    // 1-based position of an entry that is in the tree
+    int rankOf(long score, long studentId) {
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int c = compare(score, studentId, node);
+            if (c < 0) {
+                node = node.left;
+            } else if (c > 0) {
+                before += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return before + size(node.left) + 1;
+            }
+        }
+        return before + 1;
+    }
+
+    // {score, studentId} pairs in rank order
+    List<long[]> top(int k) {
+        List<long[]> result = new ArrayList<>(Math.min(k, size()));
+        Deque<Node> stack = new ArrayDeque<>();
+        Node node = root;
+        while ((node != null || !stack.isEmpty()) && result.size() < k) {
+            while (node != null) {
+                stack.push(node);
+                node = node.left;
+            }
+            node = stack.pop();
+            result.add(new long[]{node.score, node.studentId});
+            node = node.right;
+        }
+        return result;
+    }
+
+    private static int compare(long score, long studentId, Node node) {
+        int c = Long.compare(node.score, score); // higher scores first
+        return c != 0 ? c : Long.compare(studentId, node.studentId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static Node insert(Node node, Node fresh) {
+        if (node == null) return fresh;
+        if (compare(fresh.score, fresh.studentId, node) < 0) {
+            node.left = insert(node.left, fresh);
+            if (node.left.priority > node.priority) node = rotateRight(node);
+        } else {
+            node.right = insert(node.right, fresh);
+            if (node.right.priority > node.priority) node = rotateLeft(node);
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, long score, long studentId) {
+        if (node == null) return null;
+        int c = compare(score, studentId, node);
+        if (c < 0) {
+            node.left = remove(node.left, score, studentId);
+        } else if (c > 0) {
+            node.right = remove(node.right, score, studentId);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return update(a);
+        }
+        b.left = merge(a, b.left);
+        return update(b);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return update(pivot);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return update(pivot);
+    }
+}
@@ -0,0 +1,31 @@
+package com.courseservice.listener;
+
+import com.courseservice.cache.CourseCache;
+import com.courseservice.event.CourseChangedEvent;
+import com.courseservice.event.CourseCreateEvent;
+import com.courseservice.search.CourseSearchEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Every instance uses its own consumer group so each one sees every change
+// (and keeps its cache and, for the in-memory engine, its search index in step)
+@Component
+@RequiredArgsConstructor
+public class CourseCacheInvalidationListener {
+
+    private final CourseCache courseCache;
+    private final CourseSearchEngine courseSearchEngine;
+
+    @KafkaListener(topics = "course-created-topic", groupId = "course-cache-#{T(java.util.UUID).randomUUID()}")
+    public void handleCourseCreated(CourseCreateEvent event) {
+        courseCache.evictPages();
+        courseSearchEngine.onCourseChanged(event.getCourseId());
+    }
+
+    @KafkaListener(topics = "course-changed-topic", groupId = "course-cache-#{T(java.util.UUID).randomUUID()}")
+    public void handleCourseChanged(CourseChangedEvent event) {
+        courseCache.evict(event.getCourseId());
+        courseSearchEngine.onCourseChanged(event.getCourseId());
+    }
+}
@@ -0,0 +1,36 @@
+package com.courseservice.listener;
+
+import com.courseservice.event.QuizScoresGradedEvent;
+import com.courseservice.leaderboard.LeaderboardService;
+import com.persistence.messaging.BroadcastConsumers;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Leaderboards are per instance, so each one must rank every graded score, including those
+// graded on other instances. Scores older than this instance are covered by the startup
+// rebuild; re-recording one from the overlap changes nothing, as only best scores are kept.
+@Component
+@RequiredArgsConstructor
+public class LeaderboardListener implements ConsumerSeekAware {
+
+    private final LeaderboardService leaderboardService;
+    private final long startedAt = System.currentTimeMillis();
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        BroadcastConsumers.rewindTo(startedAt, assignments, callback);
+    }
+
+    @KafkaListener(topics = LeaderboardService.SCORES_TOPIC, groupId = "course-leaderboard-#{T(java.util.UUID).randomUUID()}")
+    public void handleScoresGraded(QuizScoresGradedEvent event) {
+        if (event.getScores() == null) return;
+        for (QuizScoresGradedEvent.Score s : event.getScores()) {
+            leaderboardService.record(s.getQuizId(), s.getStudentId(), s.getScore());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.courseservice.listener;
+
+import com.courseservice.finalquiz.FinalQuizPregenerator;
+import com.persistence.DTO.LessonCompletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+// Shared consumer group: one instance prepares each student's final quiz
+@Component
+@RequiredArgsConstructor
+public class LessonCompletedListener {
+
+    private final FinalQuizPregenerator finalQuizPregenerator;
+
+    @KafkaListener(topics = "lesson-completed-topic", groupId = "course-service")
+    public void handleLessonCompleted(LessonCompletedEvent event) {
+        finalQuizPregenerator.onProgress(event.getStudentId(), event.getCourseId(), event.getLessonsRemaining());
+    }
+}
@@ -0,0 +1,257 @@
+package com.courseservice.migration;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.codec.AnswerCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves quiz storage off JSON text without long table locks; several instances can share
+ * the work. On startup only metadata changes run (answers_json becomes optional, two
+ * columns are added). A background job then, a chunk at a time:
+ * <ol>
+ *     <li>copies quiz_questions.options_json (text) into a new jsonb column and, once
+ *     every row is copied, swaps the two in one short transaction; the text column stays
+ *     behind as options_json_text until dropped by hand;</li>
+ *     <li>re-encodes old submissions into the compact answers column. A legacy payload
+ *     that cannot be parsed is left as it is and flagged answers_json_unreadable.</li>
+ * </ol>
+ */
+@Slf4j
+@Component
+public class QuizStorageMigrator {
+
+    private static final TypeReference<Map<Long, String>> ANSWERS_TYPE = new TypeReference<>() {
+    };
+
+    private static final String OPTIONS_TYPE_SQL =
+            "SELECT data_type FROM information_schema.columns " +
+            "WHERE table_name = 'quiz_questions' AND column_name = 'options_json'";
+
+    // Questions are insert-only, so a copied row never goes stale; rows inserted meanwhile
+    // are picked up by later chunks and, at the latest, by the catch-up inside the swap
+    private static final String COPY_OPTIONS_SQL =
+            "UPDATE quiz_questions SET options_jsonb = options_json::jsonb WHERE id IN (" +
+            "SELECT id FROM quiz_questions WHERE options_jsonb IS NULL AND options_json IS NOT NULL " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)";
+
+    private static final String UNCOPIED_OPTIONS_SQL =
+            "SELECT id FROM quiz_questions WHERE options_jsonb IS NULL AND options_json IS NOT NULL " +
+            "ORDER BY id LIMIT ?";
+
+    // SKIP LOCKED: a chunk claimed by another instance is simply left to it
+    private static final String CLAIM_SQL =
+            "SELECT id, answers_json FROM quiz_submissions " +
+            "WHERE answers IS NULL AND answers_json IS NOT NULL AND answers_json_unreadable IS NOT TRUE " +
+            "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    // answers_json is only cleared together with a successful re-encode
+    private static final String UPDATE_SQL =
+            "UPDATE quiz_submissions SET answers = ?, answers_json = NULL WHERE id = ?";
+
+    private static final String MARK_UNREADABLE_SQL =
+            "UPDATE quiz_submissions SET answers_json_unreadable = TRUE WHERE id = ?";
+
+    private record LegacyRow(long id, String answersJson) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final long lockTimeoutMs;
+    private final int swapAttempts;
+
+    private volatile boolean schemaReady;
+    private volatile boolean optionsConverted;
+    private volatile boolean answersMigrated;
+
+    public QuizStorageMigrator(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ObjectMapper objectMapper,
+                               @Value("${quiz.storage-migration.chunk-size:1000}") int chunkSize,
+                               @Value("${quiz.storage-migration.lock-timeout-ms:2000}") long lockTimeoutMs,
+                               @Value("${quiz.storage-migration.swap-attempts:5}") int swapAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.lockTimeoutMs = lockTimeoutMs;
+        this.swapAttempts = swapAttempts;
+    }
+
+    // Catalog-only changes: none of these rewrites or scans a table
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateSchema() {
+        try {
+            jdbcTemplate.execute("ALTER TABLE quiz_submissions ALTER COLUMN answers_json DROP NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE quiz_submissions ADD COLUMN IF NOT EXISTS answers_json_unreadable BOOLEAN");
+            optionsConverted = isJsonb(optionsType());
+            if (!optionsConverted) {
+                jdbcTemplate.execute("ALTER TABLE quiz_questions ADD COLUMN IF NOT EXISTS options_jsonb jsonb");
+            }
+            schemaReady = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not migrate quiz storage columns: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.storage-migration.interval-ms:5000}")
+    public void migrateChunk() {
+        if (!schemaReady) return;
+        if (!optionsConverted) {
+            migrateOptionsChunk();
+        }
+        if (!answersMigrated) {
+            migrateAnswersChunk();
+        }
+    }
+
+    private void migrateOptionsChunk() {
+        Integer copied;
+        try {
+            copied = transactionTemplate.execute(status -> jdbcTemplate.update(COPY_OPTIONS_SQL, chunkSize));
+        } catch (DataAccessException e) {
+            // Some row in the chunk is not valid JSON: copy this chunk one row at a time
+            copyOptionsRowByRow();
+            return;
+        }
+        if (copied == null || copied == 0) {
+            try {
+                swapOptionsColumns();
+            } catch (RuntimeException e) {
+                log.warn("Could not swap in the jsonb options column, will retry: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void copyOptionsRowByRow() {
+        try {
+            for (Long id : jdbcTemplate.queryForList(UNCOPIED_OPTIONS_SQL, Long.class, chunkSize)) {
+                try {
+                    jdbcTemplate.update("UPDATE quiz_questions SET options_jsonb = options_json::jsonb WHERE id = ?", id);
+                } catch (DataAccessException e) {
+                    // Kept verbatim as a JSON string rather than lost
+                    log.warn("quiz_questions {} options_json is not valid JSON, storing it as a JSON string", id);
+                    jdbcTemplate.update("UPDATE quiz_questions SET options_jsonb = to_jsonb(options_json) WHERE id = ?", id);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Quiz options migration chunk failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // The only exclusive lock: a catch-up over the few rows inserted since the last chunk and two renames.
+    // A queued ACCESS EXCLUSIVE request blocks every later reader of the table, so the wait for it is
+    // capped by lock_timeout and retried a few times instead of stalling quiz reads behind a long query.
+    void swapOptionsColumns() {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                swapOptionsColumnsOnce();
+                break;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt >= swapAttempts) throw e;
+                log.info("quiz_questions is busy, retrying the options column swap ({}/{})", attempt, swapAttempts);
+                try {
+                    Thread.sleep(lockTimeoutMs * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+        jdbcTemplate.execute("ALTER TABLE quiz_questions VALIDATE CONSTRAINT quiz_questions_options_json_not_null");
+        optionsConverted = true;
+        log.info("quiz_questions.options_json is now jsonb; the old text column remains as options_json_text");
+    }
+
+    private void swapOptionsColumnsOnce() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeoutMs + "ms'");
+            jdbcTemplate.execute("LOCK TABLE quiz_questions IN ACCESS EXCLUSIVE MODE");
+            if (isJsonb(optionsType())) return; // another instance swapped first
+            jdbcTemplate.update("UPDATE quiz_questions SET options_jsonb = options_json::jsonb " +
+                    "WHERE options_jsonb IS NULL AND options_json IS NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE quiz_questions RENAME COLUMN options_json TO options_json_text");
+            jdbcTemplate.execute("ALTER TABLE quiz_questions ALTER COLUMN options_json_text DROP NOT NULL");
+            jdbcTemplate.execute("ALTER TABLE quiz_questions RENAME COLUMN options_jsonb TO options_json");
+            // NOT VALID: enforced for new rows now, existing rows checked below without the exclusive lock
+            jdbcTemplate.execute("ALTER TABLE quiz_questions ADD CONSTRAINT quiz_questions_options_json_not_null " +
+                    "CHECK (options_json IS NOT NULL) NOT VALID");
+        });
+    }
+
+    private void migrateAnswersChunk() {
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                List<LegacyRow> rows = jdbcTemplate.query(CLAIM_SQL,
+                        (rs, i) -> new LegacyRow(rs.getLong("id"), rs.getString("answers_json")), chunkSize);
+                if (rows.isEmpty()) return 0;
+
+                List<Object[]> updates = new ArrayList<>(rows.size());
+                List<Object[]> unreadable = new ArrayList<>();
+                for (LegacyRow row : rows) {
+                    Map<Long, String> answers = tryParseLegacy(row.answersJson());
+                    if (answers == null) {
+                        log.warn("quiz_submissions {} has unreadable answers_json, leaving it in place", row.id());
+                        unreadable.add(new Object[]{row.id()});
+                    } else {
+                        updates.add(new Object[]{AnswerCodec.encode(answers), row.id()});
+                    }
+                }
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+                jdbcTemplate.batchUpdate(MARK_UNREADABLE_SQL, unreadable);
+                return rows.size();
+            });
+            if (claimed == null || claimed == 0) {
+                answersMigrated = true;
+                log.info("All readable quiz submissions use the compact answers column");
+            } else {
+                log.debug("Processed {} legacy quiz submissions", claimed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Quiz submission migration chunk failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    // Read path for rows not migrated (yet, or ever): an unreadable payload shows as no answers
+    public Map<Long, String> parseLegacy(String answersJson) {
+        Map<Long, String> answers = tryParseLegacy(answersJson);
+        return answers == null ? Map.of() : answers;
+    }
+
+    // null when the payload cannot be parsed
+    Map<Long, String> tryParseLegacy(String answersJson) {
+        try {
+            Map<Long, String> answers = objectMapper.readValue(answersJson, ANSWERS_TYPE);
+            return answers == null ? Map.of() : answers;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String optionsType() {
+        List<String> types = jdbcTemplate.queryForList(OPTIONS_TYPE_SQL, String.class);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    // No options column at all (fresh or foreign schema): nothing to convert
+    private static boolean isJsonb(String type) {
+        return type == null || "jsonb".equals(type);
+    }
+}
@@ -0,0 +1,26 @@
+package com.courseservice.search;
+
+import com.persistence.Entity.Course;
+
+import java.util.List;
+
+/**
+ * Relevance-ranked, typo/prefix tolerant course lookup.
+ * Selected with {@code course.search.engine} (postgres | in-memory).
+ */
+public interface CourseSearchEngine {
+
+    // Returns course ids ordered by descending relevance
+    List<Long> search(String query, int limit);
+
+    // Keep the index in step with committed writes (no-op when the database maintains it)
+    default void onCourseSaved(Course course) {
+    }
+
+    default void onCourseDeleted(Long courseId) {
+    }
+
+    // A course was created, changed or deleted on some instance: re-read it, or drop it if gone
+    default void onCourseChanged(Long courseId) {
+    }
+}
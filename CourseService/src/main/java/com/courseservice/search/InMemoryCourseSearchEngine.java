@@ -0,0 +1,99 @@
+package com.courseservice.search;
+
+import com.persistence.Entity.Course;
+import com.persistence.Repository.CourseRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process trigram inverted index, for embedded databases without pg_trgm.
+ * Scores a course by the share of query trigrams it contains, so both prefixes
+ * and small typos still match. Local writes are applied after commit; writes on
+ * other instances arrive through the course-created / course-changed topics.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "course.search.engine", havingValue = "in-memory")
+public class InMemoryCourseSearchEngine implements CourseSearchEngine {
+
+    private static final double MIN_SCORE = 0.3;
+
+    private final CourseRepository courseRepository;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> documents = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        courseRepository.findAll().forEach(this::onCourseSaved);
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        Set<String> queryGrams = trigrams(query);
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (Long id : postings.getOrDefault(gram, Set.of())) {
+                hits.merge(id, 1, Integer::sum);
+            }
+        }
+
+        return hits.entrySet().stream()
+                .filter(e -> (double) e.getValue() / queryGrams.size() >= MIN_SCORE)
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    @Override
+    public synchronized void onCourseSaved(Course course) {
+        onCourseDeleted(course.getId());
+        Set<String> grams = trigrams(course.getTitle() + " " + course.getCategory());
+        documents.put(course.getId(), grams);
+        grams.forEach(gram -> postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(course.getId()));
+    }
+
+    @Override
+    public void onCourseChanged(Long courseId) {
+        courseRepository.findById(courseId)
+                .ifPresentOrElse(this::onCourseSaved, () -> onCourseDeleted(courseId));
+    }
+
+    @Override
+    public synchronized void onCourseDeleted(Long courseId) {
+        Set<String> previous = documents.remove(courseId);
+        if (previous != null) {
+            previous.forEach(gram -> {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) ids.remove(courseId);
+            });
+        }
+    }
+
+    // pg_trgm style: each word padded with two leading blanks and one trailing blank
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        if (text == null) return grams;
+
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+}
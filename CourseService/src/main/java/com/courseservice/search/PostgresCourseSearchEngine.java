@@ -0,0 +1,77 @@
+package com.courseservice.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * pg_trgm + tsvector backed search. The GIN indexes in db/course-search-postgres.sql
+ * also make the plain LIKE filters of searchCourses index-backed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "course.search.engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresCourseSearchEngine implements CourseSearchEngine {
+
+    private static final String SEARCH_SQL = """
+            SELECT c.id
+            FROM courses c
+            WHERE to_tsvector('simple', c.title || ' ' || c.category) @@ to_tsquery('simple', :tsQuery)
+               OR :q <% lower(c.title)
+               OR :q <% lower(c.category)
+            ORDER BY ts_rank(to_tsvector('simple', c.title || ' ' || c.category), to_tsquery('simple', :tsQuery))
+                     + greatest(word_similarity(:q, lower(c.title)), word_similarity(:q, lower(c.category))) DESC,
+                     c.id
+            LIMIT :limit
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createSearchIndexes() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/course-search-postgres.sql")).execute(dataSource);
+        } catch (RuntimeException e) {
+            // pg_trgm needs CREATE privilege on the database; search still works, just unindexed
+            log.warn("Could not create course search indexes: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public List<Long> search(String query, int limit) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        String tsQuery = toPrefixTsQuery(q);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+
+        return jdbcTemplate.queryForList(SEARCH_SQL, new MapSqlParameterSource()
+                .addValue("q", q)
+                .addValue("tsQuery", tsQuery)
+                .addValue("limit", limit), Long.class);
+    }
+
+    // "java spr" -> "java:* & spr:*" (prefix match on every term, punctuation stripped)
+    private static String toPrefixTsQuery(String q) {
+        return Arrays.stream(q.split("\\s+"))
+                .map(term -> term.replaceAll("[^\\p{L}\\p{N}]", ""))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
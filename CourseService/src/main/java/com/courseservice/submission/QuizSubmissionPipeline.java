@@ -0,0 +1,392 @@
+package com.courseservice.submission;
+
+import com.courseservice.Service.QuizService;
+import com.courseservice.analytics.QuizAnalytics;
+import com.courseservice.cache.AnswerKey;
+import com.courseservice.event.QuizScoresGradedEvent;
+import com.courseservice.leaderboard.LeaderboardService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.persistence.codec.AnswerCodec;
+import com.persistence.DTO.QuizSubmissionStatusDTO;
+import com.persistence.DTO.SubmitRequestDTO;
+import com.persistence.DTO.SubmitResponseDTO;
+import com.persistence.outbox.OutboxWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exam-mode ingestion. Submissions are accepted into a bounded in-memory queue and
+ * answered with a token straight away; a small worker pool drains the queue in batches,
+ * grades against the cached answer keys and writes each batch with one JDBC batch insert,
+ * in the same transaction as one outbox event carrying the batch's scores for the other
+ * instances' leaderboards. A full queue rejects instead of blocking, so acknowledgement
+ * latency stays flat.
+ * <p>
+ * Outcomes go to quiz_submission_results (GRADED in the batch's own transaction), so a
+ * token can be polled on any instance. PENDING is only known to the accepting instance;
+ * elsewhere a token younger than the result TTL with no stored outcome is reported
+ * PENDING, which is why tokens carry their acceptance time. If a batch insert fails, its
+ * rows are retried one per transaction so only the offending submissions are FAILED.
+ */
+@Slf4j
+@Component
+public class QuizSubmissionPipeline {
+
+    private static final String NEXT_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('quiz_submissions', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quiz_submissions (id, quiz_id, student_id, submitted_at, score, answers) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RESULT_SQL =
+            "INSERT INTO quiz_submission_results (token, status, submission_id, score, total_marks, error, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (token) DO NOTHING";
+
+    private static final String SELECT_RESULT_SQL =
+            "SELECT status, submission_id, score, total_marks, error FROM quiz_submission_results WHERE token = ?";
+
+    private record PendingSubmission(String token, Long quizId, Long studentId,
+                                     Map<Long, String> answers, LocalDateTime submittedAt) {
+    }
+
+    private record GradedSubmission(PendingSubmission pending, AnswerKey key, boolean[] attempted, boolean[] correct,
+                                    int score, byte[] answers) {
+    }
+
+    private final QuizService quizService;
+    private final QuizAnalytics quizAnalytics;
+    private final LeaderboardService leaderboardService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxWriter outboxWriter;
+    private final BlockingQueue<PendingSubmission> queue;
+    private final Cache<String, QuizSubmissionStatusDTO> statuses;
+    private final int workers;
+    private final int batchSize;
+    private final Duration resultTtl;
+
+    private ExecutorService executor;
+    private volatile boolean running;
+
+    public QuizSubmissionPipeline(QuizService quizService,
+                                  QuizAnalytics quizAnalytics,
+                                  LeaderboardService leaderboardService,
+                                  JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedJdbcTemplate,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  OutboxWriter outboxWriter,
+                                  @Value("${quiz.submission.queue-capacity:50000}") int queueCapacity,
+                                  @Value("${quiz.submission.workers:4}") int workers,
+                                  @Value("${quiz.submission.batch-size:500}") int batchSize,
+                                  @Value("${quiz.submission.result-ttl-minutes:30}") long resultTtlMinutes) {
+        this.quizService = quizService;
+        this.quizAnalytics = quizAnalytics;
+        this.leaderboardService = leaderboardService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxWriter = outboxWriter;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.resultTtl = Duration.ofMinutes(resultTtlMinutes);
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(resultTtl)
+                .build();
+        this.workers = workers;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTables() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/quiz-submission-results.sql")).execute(dataSource);
+        } catch (RuntimeException e) {
+            log.warn("Could not create quiz submission results table: {}", e.getMessage());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "quiz-submission-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::drainLoop);
+        }
+    }
+
+    // Workers finish whatever is already queued before the context closes
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} quiz submissions still queued at shutdown", queue.size());
+            executor.shutdownNow();
+        }
+    }
+
+    public QuizSubmissionStatusDTO submit(SubmitRequestDTO req) {
+        if (req.getQuizId() == null || req.getStudentId() == null) {
+            throw new IllegalArgumentException("quizId and studentId are required");
+        }
+        // Unknown quizzes fail fast (404); also warms the answer key for the workers
+        quizService.answerKeyFor(req.getQuizId());
+
+        // Acceptance time first, so other instances can tell "still queued" from "unknown"
+        String token = Long.toString(System.currentTimeMillis(), 36) + "-" + UUID.randomUUID();
+        Map<Long, String> answers = req.getAnswers() == null ? Map.of() : new HashMap<>(req.getAnswers());
+        QuizSubmissionStatusDTO status = QuizSubmissionStatusDTO.builder()
+                .token(token)
+                .status("PENDING")
+                .build();
+        statuses.put(token, status);
+
+        if (!queue.offer(new PendingSubmission(token, req.getQuizId(), req.getStudentId(), answers, LocalDateTime.now()))) {
+            statuses.invalidate(token);
+            throw new RejectedExecutionException("Submission queue is full, retry shortly");
+        }
+        return status;
+    }
+
+    public QuizSubmissionStatusDTO getStatus(String token) {
+        QuizSubmissionStatusDTO status = statuses.getIfPresent(token);
+        if (status != null) {
+            return status;
+        }
+        // Accepted by another instance, or by this one before a restart
+        List<QuizSubmissionStatusDTO> stored = jdbcTemplate.query(SELECT_RESULT_SQL, (rs, n) ->
+                QuizSubmissionStatusDTO.builder()
+                        .token(token)
+                        .status(rs.getString(1))
+                        .result("GRADED".equals(rs.getString(1))
+                                ? quizService.toSubmitResponse(rs.getLong(2), rs.getInt(3), rs.getInt(4))
+                                : null)
+                        .error(rs.getString(5))
+                        .build(), token);
+        if (stored != null && !stored.isEmpty()) {
+            return stored.get(0);
+        }
+        if (isRecent(token)) {
+            return QuizSubmissionStatusDTO.builder()
+                    .token(token)
+                    .status("PENDING")
+                    .build();
+        }
+        throw new NoSuchElementException("No submission found for token: " + token);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.submission.result-cleanup-interval-ms:300000}")
+    public void purgeExpiredResults() {
+        try {
+            jdbcTemplate.update("DELETE FROM quiz_submission_results WHERE updated_at < ?",
+                    Timestamp.valueOf(LocalDateTime.now().minus(resultTtl)));
+        } catch (RuntimeException e) {
+            log.warn("Could not purge expired quiz submission results: {}", e.getMessage());
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingSubmission> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSubmission first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Quiz submission batch of {} failed", batch.size(), e);
+                // Rows already inserted keep their GRADED status
+                storeFailures(batch.stream()
+                        .filter(p -> !isGraded(p.token()))
+                        .map(p -> fail(p.token(), "Could not record submission: " + e.getMessage()))
+                        .toList());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<PendingSubmission> batch) {
+        Set<Long> studentIds = new HashSet<>();
+        batch.forEach(p -> studentIds.add(p.studentId()));
+        Set<Long> knownStudents = new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT id FROM users WHERE id IN (:ids)", Map.of("ids", studentIds), Long.class));
+
+        List<QuizSubmissionStatusDTO> failures = new ArrayList<>();
+        List<GradedSubmission> graded = new ArrayList<>(batch.size());
+        for (PendingSubmission p : batch) {
+            if (!knownStudents.contains(p.studentId())) {
+                failures.add(fail(p.token(), "Student not found: " + p.studentId()));
+                continue;
+            }
+            try {
+                AnswerKey key = quizService.answerKeyFor(p.quizId());
+                boolean[] attempted = new boolean[key.size()];
+                boolean[] correct = new boolean[key.size()];
+                int score = key.grade(p.answers(), attempted, correct);
+                graded.add(new GradedSubmission(p, key, attempted, correct, score,
+                        AnswerCodec.encode(p.answers())));
+            } catch (NoSuchElementException e) {
+                failures.add(fail(p.token(), e.getMessage()));
+            }
+        }
+        if (graded.isEmpty()) {
+            storeFailures(failures);
+            return;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, graded.size());
+        List<Integer> stored = new ArrayList<>(graded.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(graded, ids));
+            for (int i = 0; i < graded.size(); i++) stored.add(i);
+        } catch (RuntimeException batchError) {
+            // One bad row (a quiz deleted meanwhile, a constraint) must not cost the rest of the batch
+            log.warn("Batch insert of {} quiz submissions failed, retrying one by one: {}",
+                    graded.size(), batchError.getMessage());
+            for (int i = 0; i < graded.size(); i++) {
+                List<GradedSubmission> row = List.of(graded.get(i));
+                List<Long> rowId = List.of(ids.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(row, rowId));
+                    stored.add(i);
+                } catch (RuntimeException e) {
+                    failures.add(fail(graded.get(i).pending().token(), "Could not record submission: " + e.getMessage()));
+                }
+            }
+        }
+        storeFailures(failures);
+
+        // The rows are committed: report them GRADED first, then feed the local views one
+        // submission at a time so a failure there cannot turn a stored result into FAILED
+        for (int i : stored) {
+            GradedSubmission g = graded.get(i);
+            SubmitResponseDTO response = quizService.toSubmitResponse(ids.get(i), g.score(), g.key().totalMarks());
+            statuses.put(g.pending().token(), QuizSubmissionStatusDTO.builder()
+                    .token(g.pending().token())
+                    .status("GRADED")
+                    .result(response)
+                    .build());
+            try {
+                quizAnalytics.record(g.pending().quizId(), g.key(), g.attempted(), g.correct(), g.score());
+                leaderboardService.record(g.pending().quizId(), g.pending().studentId(), g.score());
+            } catch (RuntimeException e) {
+                log.error("Stored submission {} but could not update analytics/leaderboard", ids.get(i), e);
+            }
+        }
+    }
+
+    private void insert(List<GradedSubmission> graded, List<Long> ids) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                GradedSubmission g = graded.get(i);
+                ps.setLong(1, ids.get(i));
+                ps.setLong(2, g.pending().quizId());
+                ps.setLong(3, g.pending().studentId());
+                ps.setTimestamp(4, Timestamp.valueOf(g.pending().submittedAt()));
+                ps.setInt(5, g.score());
+                ps.setBytes(6, g.answers());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return graded.size();
+            }
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> results = new ArrayList<>(graded.size());
+        for (int i = 0; i < graded.size(); i++) {
+            GradedSubmission g = graded.get(i);
+            results.add(new Object[]{g.pending().token(), "GRADED", ids.get(i), g.score(), g.key().totalMarks(), null, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, results);
+
+        List<QuizScoresGradedEvent.Score> scores = new ArrayList<>(graded.size());
+        for (GradedSubmission g : graded) {
+            scores.add(new QuizScoresGradedEvent.Score(g.pending().quizId(), g.pending().studentId(), g.score()));
+        }
+        outboxWriter.write(LeaderboardService.SCORES_TOPIC, null, QuizScoresGradedEvent.builder()
+                .scores(scores)
+                .build());
+    }
+
+    private boolean isGraded(String token) {
+        QuizSubmissionStatusDTO status = statuses.getIfPresent(token);
+        return status != null && "GRADED".equals(status.getStatus());
+    }
+
+    private boolean isRecent(String token) {
+        int dash = token.indexOf('-');
+        if (dash <= 0) return false;
+        try {
+            long acceptedAt = Long.parseLong(token.substring(0, dash), 36);
+            return System.currentTimeMillis() - acceptedAt < resultTtl.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private QuizSubmissionStatusDTO fail(String token, String error) {
+        QuizSubmissionStatusDTO status = QuizSubmissionStatusDTO.builder()
+                .token(token)
+                .status("FAILED")
+                .error(error)
+                .build();
+        statuses.put(token, status);
+        return status;
+    }
+
+    // Best effort: the accepting instance still reports FAILED from its own cache
+    private void storeFailures(List<QuizSubmissionStatusDTO> failures) {
+        if (failures.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(failures.size());
+        for (QuizSubmissionStatusDTO f : failures) {
+            rows.add(new Object[]{f.getToken(), "FAILED", null, null, null, f.getError(), now});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, rows);
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} failed quiz submission results: {}", failures.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,8 @@
+-- Index-backed course search (idempotent, applied on startup by PostgresCourseSearchEngine)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Serves both the ranked search and the LIKE '%x%' filters in searchCourses
+CREATE INDEX IF NOT EXISTS idx_courses_title_trgm ON courses USING gin (lower(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_courses_category_trgm ON courses USING gin (lower(category) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_courses_fts ON courses USING gin (to_tsvector('simple', title || ' ' || category));
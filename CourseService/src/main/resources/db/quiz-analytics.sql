@@ -0,0 +1,18 @@
+-- Checkpoints of the in-memory quiz analytics (idempotent, applied on startup by QuizAnalytics)
+CREATE TABLE IF NOT EXISTS quiz_stats (
+    quiz_id         BIGINT PRIMARY KEY,
+    submissions     BIGINT    NOT NULL,
+    score_sum       BIGINT    NOT NULL,
+    score_sq_sum    BIGINT    NOT NULL,
+    score_histogram BIGINT[]  NOT NULL,
+    updated_at      TIMESTAMP NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS quiz_question_stats (
+    quiz_id           BIGINT NOT NULL,
+    question_id       BIGINT NOT NULL,
+    attempts          BIGINT NOT NULL,
+    correct_count     BIGINT NOT NULL,
+    correct_score_sum BIGINT NOT NULL,
+    PRIMARY KEY (quiz_id, question_id)
+);
@@ -0,0 +1,4 @@
+-- quiz_questions.id moved from IDENTITY to the pooled quiz_questions_seq (idempotent, applied on startup by QuizImportService).
+-- Move the sequence past ids issued by the old identity column so the two never collide.
+SELECT setval('quiz_questions_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM quiz_questions))
+WHERE (SELECT last_value FROM quiz_questions_seq) <= (SELECT COALESCE(MAX(id), 0) FROM quiz_questions);
@@ -0,0 +1,13 @@
+-- Outcomes of exam-mode submissions, so any instance can answer a token poll
+-- (idempotent, applied on startup by QuizSubmissionPipeline)
+CREATE TABLE IF NOT EXISTS quiz_submission_results (
+    token         VARCHAR(64)  PRIMARY KEY,
+    status        VARCHAR(16)  NOT NULL,
+    submission_id BIGINT,
+    score         INTEGER,
+    total_marks   INTEGER,
+    error         TEXT,
+    updated_at    TIMESTAMP    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_quiz_submission_results_updated_at ON quiz_submission_results (updated_at);
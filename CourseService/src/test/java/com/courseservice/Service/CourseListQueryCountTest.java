@@ -0,0 +1,151 @@
+package com.courseservice.Service;
+
+import com.courseservice.cache.AnswerKeyCache;
+import com.courseservice.cache.CourseCache;
+import com.courseservice.search.InMemoryCourseSearchEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.Entity.Course;
+import com.persistence.Entity.User;
+import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.UserRepo;
+import com.persistence.outbox.OutboxWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The list endpoints must issue a fixed number of statements however many courses they
+ * return: instructors are fetch-joined, never loaded one by one. Each case is measured
+ * with a few rows and again with ten times as many.
+ */
+@DataJpaTest(properties = {
+        "course.search.engine=in-memory",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({CourseService.class, CourseCache.class, AnswerKeyCache.class, InMemoryCourseSearchEngine.class,
+        CourseListQueryCountTest.JacksonConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CourseListQueryCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 30;
+
+    @TestConfiguration
+    static class JacksonConfig {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    @MockBean
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private InMemoryCourseSearchEngine searchEngine;
+
+    @Autowired
+    private CourseCache courseCache;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String category;
+
+    @BeforeEach
+    void newCategory() {
+        category = "qc-" + UUID.randomUUID();
+    }
+
+    @Test
+    void getAllCoursesIsOneQueryPerPage() {
+        seed(FEW);
+        long few = count(() -> {
+            courseCache.evictPages();
+            assertThat(courseService.getAllCourses(null, 100).getContent()).hasSizeGreaterThanOrEqualTo(FEW);
+        });
+        seed(MANY - FEW);
+        long many = count(() -> {
+            courseCache.evictPages();
+            assertThat(courseService.getAllCourses(null, 100).getContent()).hasSizeGreaterThanOrEqualTo(MANY);
+        });
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void searchCoursesIsOneQueryPerPage() {
+        seed(FEW);
+        long few = count(() -> assertThat(courseService.searchCourses(null, category, null, null, 100)
+                .getContent()).hasSize(FEW));
+        seed(MANY - FEW);
+        long many = count(() -> assertThat(courseService.searchCourses(null, category, null, null, 100)
+                .getContent()).hasSize(MANY));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void rankedSearchLoadsAllHitsInOneQuery() {
+        seed(FEW);
+        long few = count(() -> assertThat(courseService.searchCoursesRanked(category, 100)
+                .getContent()).hasSize(FEW));
+        seed(MANY - FEW);
+        long many = count(() -> assertThat(courseService.searchCoursesRanked(category, 100)
+                .getContent()).hasSize(MANY));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long count(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Every course gets its own instructor, so a lazy instructor load would show up per row
+    private void seed(int courses) {
+        for (int i = 0; i < courses; i++) {
+            User instructor = new User();
+            instructor.setFullName("Instructor " + i);
+            instructor.setEmail(UUID.randomUUID() + "@test.local");
+            instructor.setPasswordHash("not-a-real-hash");
+            instructor.setRole(User.Role.INSTRUCTOR);
+            Course course = courseRepository.save(Course.builder()
+                    .title("Course " + i)
+                    .description("Query count fixture")
+                    .category(category)
+                    .instructor(userRepo.save(instructor))
+                    .build());
+            searchEngine.onCourseSaved(course);
+        }
+    }
+}
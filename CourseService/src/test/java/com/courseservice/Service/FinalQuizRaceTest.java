@@ -0,0 +1,111 @@
+package com.courseservice.Service;
+
+import com.courseservice.analytics.QuizAnalytics;
+import com.courseservice.cache.AnswerKeyCache;
+import com.courseservice.cache.QuestionSampler;
+import com.courseservice.leaderboard.LeaderboardService;
+import com.courseservice.migration.QuizStorageMigrator;
+import com.persistence.DTO.QuizDTO;
+import com.persistence.Entity.Course;
+import com.persistence.Entity.Quiz;
+import com.persistence.Entity.QuizQuestion;
+import com.persistence.Repository.*;
+import com.persistence.outbox.OutboxWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FinalQuizRaceTest {
+
+    private static final long STUDENT_ID = 9L;
+    private static final long COURSE_ID = 3L;
+
+    private final QuizRepository quizRepository = mock(QuizRepository.class);
+    private final QuizQuestionRepository quizQuestionRepository = mock(QuizQuestionRepository.class);
+    private final CourseRepository courseRepository = mock(CourseRepository.class);
+    private final EnrollmentRepository enrollmentRepository = mock(EnrollmentRepository.class);
+    private final QuestionSampler questionSampler = mock(QuestionSampler.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private QuizService quizService;
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        quizService = new QuizService(quizRepository, quizQuestionRepository, courseRepository, mock(UserRepo.class),
+                mock(QuizSubmissionRepository.class), enrollmentRepository, questionSampler,
+                mock(AnswerKeyCache.class), mock(QuizAnalytics.class), mock(LeaderboardService.class),
+                mock(QuizStorageMigrator.class), mock(OutboxWriter.class), transactionManager);
+
+        EnrollmentRepository.LessonTally tally = mock(EnrollmentRepository.LessonTally.class);
+        when(tally.getCompleted()).thenReturn(4L);
+        when(tally.getTotal()).thenReturn(4L);
+        when(enrollmentRepository.findLessonTally(STUDENT_ID, COURSE_ID)).thenReturn(Optional.of(tally));
+        when(courseRepository.findById(COURSE_ID)).thenReturn(Optional.of(Course.builder().id(COURSE_ID).title("Java").build()));
+        when(questionSampler.sample(COURSE_ID, 10)).thenReturn(List.of(1L));
+        when(quizQuestionRepository.findAllById(List.of(1L))).thenReturn(List.of(question()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void createsTheQuizWhenNoneWasPrepared() {
+        when(quizRepository.findFinalQuiz(STUDENT_ID, COURSE_ID)).thenReturn(Optional.empty());
+        when(quizRepository.save(any(Quiz.class))).thenAnswer(invocation -> {
+            Quiz quiz = invocation.getArgument(0);
+            quiz.setId(41L);
+            return quiz;
+        });
+
+        EntityModel<QuizDTO> model = quizService.generateFinalQuizAfterCourseCompletion(STUDENT_ID, COURSE_ID);
+
+        assertThat(model.getContent().getId()).isEqualTo(41L);
+        // Lookup, then insert: each commits before the next begins, so only one connection is held
+        InOrder inOrder = inOrder(transactionManager);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void losingTheInsertRaceReturnsTheWinnersQuiz() {
+        Quiz winner = Quiz.builder().id(77L).title("Final Quiz for Java").totalMarks(2)
+                .referencedQuestions(new ArrayList<>(List.of(question()))).build();
+        // Not there when looked up, inserted by the pregenerator before this insert commits
+        when(quizRepository.findFinalQuiz(STUDENT_ID, COURSE_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(quizRepository.save(any(Quiz.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_quizzes_prepared_for_course"));
+
+        EntityModel<QuizDTO> model = quizService.generateFinalQuizAfterCourseCompletion(STUDENT_ID, COURSE_ID);
+
+        assertThat(model.getContent().getId()).isEqualTo(77L);
+        assertThat(model.getContent().getQuestions()).hasSize(1);
+        // The failed insert rolled back only its own transaction
+        verify(transactionManager).rollback(any());
+    }
+
+    private static QuizQuestion question() {
+        return QuizQuestion.builder().id(1L).questionText("Q").correctAnswer("a").marks(2).build();
+    }
+}
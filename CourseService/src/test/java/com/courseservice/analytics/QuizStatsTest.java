@@ -0,0 +1,104 @@
+package com.courseservice.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuizStatsTest {
+
+    private static final long[] QUESTIONS = {10L, 20L};
+    private static final boolean[] BOTH = {true, true};
+    private static final boolean[] FIRST = {true, false};
+
+    @Test
+    void pendingHoldsOnlyWhatWasRecordedSinceTheLastTake() {
+        QuizStats live = new QuizStats(1L, QUESTIONS);
+        assertThat(live.isDirty()).isFalse();
+
+        live.record(BOTH, FIRST, 50);
+        live.record(BOTH, BOTH, 100);
+        QuizStats first = live.takePending();
+        live.record(FIRST, FIRST, 50);
+        QuizStats second = live.takePending();
+
+        assertThat(first.submissions).isEqualTo(2);
+        assertThat(first.correct).containsExactly(2, 1);
+        assertThat(second.submissions).isEqualTo(1);
+        assertThat(second.attempts).containsExactly(1, 0);
+        assertThat(live.isDirty()).isFalse();
+        // Totals keep growing regardless of checkpoints
+        assertThat(live.copy().submissions).isEqualTo(3);
+    }
+
+    @Test
+    void failedCheckpointPutsTheIncrementsBack() {
+        QuizStats live = new QuizStats(1L, QUESTIONS);
+        live.record(BOTH, FIRST, 50);
+        QuizStats delta = live.takePending();
+        live.record(BOTH, BOTH, 100);
+
+        live.restorePending(delta);
+
+        QuizStats retry = live.takePending();
+        assertThat(retry.submissions).isEqualTo(2);
+        assertThat(retry.scoreSum).isEqualTo(150);
+        assertThat(retry.histogram[50]).isEqualTo(1);
+        assertThat(retry.histogram[100]).isEqualTo(1);
+    }
+
+    @Test
+    void instancesAccumulateIntoTheSameTotals() {
+        QuizStats stored = new QuizStats(1L, QUESTIONS);
+        QuizStats a = new QuizStats(1L, QUESTIONS);
+        QuizStats b = new QuizStats(1L, QUESTIONS);
+
+        a.record(BOTH, BOTH, 100);
+        a.record(BOTH, FIRST, 50);
+        b.record(FIRST, FIRST, 50);
+
+        // What the additive upserts do to the stored row
+        apply(stored, a.takePending());
+        apply(stored, b.takePending());
+        b.record(BOTH, BOTH, 100); // recorded on b after its checkpoint was taken
+        b.rebase(stored);
+
+        assertThat(stored.submissions).isEqualTo(3);
+        assertThat(stored.correct).containsExactly(3, 1);
+        QuizStats seenByB = b.copy();
+        assertThat(seenByB.submissions).isEqualTo(4);
+        assertThat(seenByB.histogram[100]).isEqualTo(2);
+        assertThat(b.takePending().submissions).isEqualTo(1);
+    }
+
+    @Test
+    void unwrittenIncrementsSurviveAChangeOfQuestions() {
+        QuizStats old = new QuizStats(1L, QUESTIONS);
+        old.record(BOTH, FIRST, 50);
+
+        // Question 20 was dropped and 15 added; the stored totals are empty
+        QuizStats fresh = new QuizStats(1L, new long[]{10L, 15L});
+        fresh.carryPendingFrom(old);
+
+        assertThat(old.isDirty()).isFalse();
+        assertThat(fresh.copy().submissions).isEqualTo(1);
+        QuizStats pending = fresh.takePending();
+        assertThat(pending.submissions).isEqualTo(1);
+        assertThat(pending.attempts).containsExactly(1, 0);
+        assertThat(pending.correct).containsExactly(1, 0);
+        assertThat(pending.histogram[50]).isEqualTo(1);
+    }
+
+    private static void apply(QuizStats stored, QuizStats delta) {
+        for (int i = 0; i < QUESTIONS.length; i++) {
+            stored.attempts[i] += delta.attempts[i];
+            stored.correct[i] += delta.correct[i];
+            stored.correctScoreSum[i] += delta.correctScoreSum[i];
+        }
+        for (int p = 0; p < QuizStats.BUCKETS; p++) {
+            stored.histogram[p] += delta.histogram[p];
+        }
+        stored.submissions += delta.submissions;
+        stored.scoreSum += delta.scoreSum;
+        stored.scoreSqSum += delta.scoreSqSum;
+    }
+}
@@ -0,0 +1,112 @@
+package com.courseservice.cache;
+
+import com.persistence.Entity.QuizQuestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyTest {
+
+    @Test
+    void matchesTrimmedAndCaseInsensitively() {
+        AnswerKey key = AnswerKey.compile(List.of(
+                question(30L, " Paris ", 2),
+                question(10L, "42", 1),
+                question(20L, "O(n log n)", 3)));
+
+        assertThat(key.totalMarks()).isEqualTo(6);
+        assertThat(key.grade(Map.of(10L, "42", 20L, "  o(N LOG n)\t", 30L, "paris"))).isEqualTo(6);
+        assertThat(key.grade(Map.of(10L, "41", 20L, "O(n)", 30L, "Pari"))).isZero();
+        assertThat(key.grade(Map.of())).isZero();
+    }
+
+    @Test
+    void ignoresUnknownQuestionsAndNullEntries() {
+        AnswerKey key = AnswerKey.compile(List.of(question(1L, "a", 1), question(2L, "b", 1)));
+        Map<Long, String> given = new HashMap<>();
+        given.put(1L, null);
+        given.put(null, "b");
+        given.put(99L, "a");
+        given.put(2L, "B");
+
+        assertThat(key.grade(given)).isEqualTo(1);
+    }
+
+    @Test
+    void missingMarksCountAsOneAndMissingAnswersNeverMatch() {
+        AnswerKey key = AnswerKey.compile(List.of(question(1L, "a", null), question(2L, null, 5)));
+
+        assertThat(key.totalMarks()).isEqualTo(6);
+        assertThat(key.grade(Map.of(1L, "A", 2L, ""))).isEqualTo(1);
+    }
+
+    @Test
+    void reportsPerOrdinalOutcomesInIdOrder() {
+        AnswerKey key = AnswerKey.compile(List.of(question(3L, "c", 1), question(1L, "a", 1), question(2L, "b", 1)));
+        boolean[] attempted = new boolean[key.size()];
+        boolean[] correct = new boolean[key.size()];
+
+        key.grade(Map.of(1L, "a", 3L, "wrong"), attempted, correct);
+
+        assertThat(key.questionIdAt(0)).isEqualTo(1L);
+        assertThat(key.questionIdAt(2)).isEqualTo(3L);
+        assertThat(attempted).containsExactly(true, false, true);
+        assertThat(correct).containsExactly(true, false, false);
+    }
+
+    @Test
+    void agreesWithTheOriginalGradingLoop() {
+        Random random = new Random(42);
+        String[] words = {"alpha", "Beta", "GAMMA", "delta", "ß", "İstanbul", "x"};
+
+        for (int round = 0; round < 2_000; round++) {
+            List<QuizQuestion> questions = new ArrayList<>();
+            Map<Long, String> given = new HashMap<>();
+            long id = 0;
+            for (int i = 0; i < 1 + random.nextInt(20); i++) {
+                id += 1 + random.nextInt(1_000);
+                String correct = words[random.nextInt(words.length)];
+                questions.add(question(id, pad(random, correct), 1 + random.nextInt(5)));
+                if (random.nextInt(4) > 0) {
+                    String answer = random.nextBoolean() ? correct : words[random.nextInt(words.length)];
+                    given.put(id, pad(random, random.nextBoolean() ? answer.toUpperCase() : answer));
+                }
+            }
+
+            assertThat(AnswerKey.compile(questions).grade(given)).isEqualTo(originalGrade(questions, given));
+        }
+    }
+
+    // The per-question loop QuizService graded with before answer keys were compiled
+    private static int originalGrade(List<QuizQuestion> questions, Map<Long, String> answers) {
+        int score = 0;
+        for (QuizQuestion q : questions) {
+            int marks = q.getMarks() == null ? 1 : q.getMarks();
+            String correct = q.getCorrectAnswer();
+            String given = answers.get(q.getId());
+            if (given != null && correct != null && given.trim().equalsIgnoreCase(correct.trim())) {
+                score += marks;
+            }
+        }
+        return score;
+    }
+
+    private static String pad(Random random, String value) {
+        return " ".repeat(random.nextInt(2)) + value + "\t".repeat(random.nextInt(2));
+    }
+
+    private static QuizQuestion question(Long id, String correctAnswer, Integer marks) {
+        return QuizQuestion.builder()
+                .id(id)
+                .questionText("Question " + id)
+                .correctAnswer(correctAnswer)
+                .marks(marks)
+                .build();
+    }
+}
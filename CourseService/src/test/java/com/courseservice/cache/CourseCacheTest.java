@@ -0,0 +1,44 @@
+package com.courseservice.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.DTO.CourseDTO;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseCacheTest {
+
+    @Test
+    void evictedCourseIsNeverServedFromTheOffHeapTier() {
+        // One heap entry: every load size-evicts the previous course into the off-heap tier
+        CourseCache cache = new CourseCache(new ObjectMapper(), 1, 16, true, 1 << 20);
+
+        for (long id = 1; id <= 2_000; id++) {
+            long course = id;
+            cache.get(course, key -> course(key, "v1"));
+            cache.get(course + 1, key -> course(key, "v1"));
+            cache.evict(course);
+
+            assertThat(cache.get(course, key -> course(key, "v2")).getTitle()).as("course %d", course).isEqualTo("v2");
+            cache.evict(course);
+            cache.evict(course + 1);
+        }
+    }
+
+    @Test
+    void sizeEvictedCourseIsReadBackFromTheOffHeapTier() {
+        CourseCache cache = new CourseCache(new ObjectMapper(), 1, 16, true, 1 << 20);
+
+        cache.get(1L, key -> course(key, "v1"));
+        for (long id = 2; id <= 50; id++) {
+            cache.get(id, key -> course(key, "v1"));
+        }
+
+        // Whichever of the two is no longer on-heap comes back from off-heap, not the loader
+        assertThat(cache.get(1L, key -> course(key, "reloaded")).getTitle()).isEqualTo("v1");
+    }
+
+    private static CourseDTO course(Long id, String title) {
+        return CourseDTO.builder().id(id).title(title).build();
+    }
+}
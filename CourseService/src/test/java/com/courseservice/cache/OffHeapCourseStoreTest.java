@@ -0,0 +1,79 @@
+package com.courseservice.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static com.courseservice.cache.OffHeapCourseStore.BLOCK_SIZE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapCourseStoreTest {
+
+    @Test
+    void roundTripsEntriesSpanningSeveralBlocks() {
+        OffHeapCourseStore store = new OffHeapCourseStore(BLOCK_SIZE * 16L);
+        byte[] small = bytes(10, (byte) 1);
+        byte[] large = bytes(BLOCK_SIZE * 3 + 17, (byte) 2);
+        byte[] empty = new byte[0];
+
+        store.put(1L, small);
+        store.put(2L, large);
+        store.put(3L, empty);
+
+        assertThat(store.get(1L)).isEqualTo(small);
+        assertThat(store.get(2L)).isEqualTo(large);
+        assertThat(store.get(3L)).isEqualTo(empty);
+        assertThat(store.get(4L)).isNull();
+        assertThat(store.hits.sum()).isEqualTo(3);
+        assertThat(store.misses.sum()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsOldestFirstWhenArenaIsFull() {
+        OffHeapCourseStore store = new OffHeapCourseStore(BLOCK_SIZE * 4L);
+
+        store.put(1L, bytes(BLOCK_SIZE * 2, (byte) 1));
+        store.put(2L, bytes(BLOCK_SIZE, (byte) 2));
+        store.put(3L, bytes(BLOCK_SIZE * 2, (byte) 3));
+
+        assertThat(store.get(1L)).isNull();
+        assertThat(store.get(2L)).isEqualTo(bytes(BLOCK_SIZE, (byte) 2));
+        assertThat(store.get(3L)).isEqualTo(bytes(BLOCK_SIZE * 2, (byte) 3));
+        assertThat(store.evictions.sum()).isEqualTo(1);
+    }
+
+    @Test
+    void removedAndReplacedEntriesReturnTheirBlocks() {
+        OffHeapCourseStore store = new OffHeapCourseStore(BLOCK_SIZE * 4L);
+
+        // Churn far more data than the arena holds: nothing may leak or be evicted needlessly
+        for (int round = 0; round < 1_000; round++) {
+            store.put(1L, bytes(BLOCK_SIZE * 2, (byte) round));
+            store.put(2L, bytes(BLOCK_SIZE * 2, (byte) -round));
+            store.remove(2L);
+        }
+
+        assertThat(store.evictions.sum()).isZero();
+        assertThat(store.size()).isEqualTo(1);
+        store.put(3L, bytes(BLOCK_SIZE * 2, (byte) 7));
+        assertThat(store.get(1L)).isEqualTo(bytes(BLOCK_SIZE * 2, (byte) 999));
+        assertThat(store.get(3L)).isEqualTo(bytes(BLOCK_SIZE * 2, (byte) 7));
+    }
+
+    @Test
+    void entriesLargerThanTheArenaAreNotStored() {
+        OffHeapCourseStore store = new OffHeapCourseStore(BLOCK_SIZE * 2L);
+        store.put(1L, bytes(BLOCK_SIZE, (byte) 1));
+
+        store.put(2L, bytes(BLOCK_SIZE * 2 + 1, (byte) 2));
+
+        assertThat(store.get(2L)).isNull();
+        assertThat(store.get(1L)).isNotNull();
+    }
+
+    private static byte[] bytes(int length, byte value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
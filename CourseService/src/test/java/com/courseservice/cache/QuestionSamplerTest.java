@@ -0,0 +1,84 @@
+package com.courseservice.cache;
+
+import com.persistence.Repository.QuizQuestionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class QuestionSamplerTest {
+
+    private static final long COURSE_ID = 7L;
+
+    private final QuizQuestionRepository repository = mock(QuizQuestionRepository.class);
+    private final QuestionSampler sampler = new QuestionSampler(repository, 10, 10);
+
+    @Test
+    void sampleIsDistinctIdsFromTheBank() {
+        List<Long> bank = bank(100);
+        when(repository.findIdsByCourseId(COURSE_ID)).thenReturn(bank);
+
+        for (int round = 0; round < 1_000; round++) {
+            List<Long> sample = sampler.sample(COURSE_ID, 10);
+
+            assertThat(sample).hasSize(10).doesNotHaveDuplicates();
+            assertThat(bank).containsAll(sample);
+        }
+    }
+
+    @Test
+    void askingForAtLeastTheWholeBankReturnsAllOfIt() {
+        List<Long> bank = bank(5);
+        when(repository.findIdsByCourseId(COURSE_ID)).thenReturn(bank);
+
+        assertThat(sampler.sample(COURSE_ID, 5)).containsExactlyInAnyOrderElementsOf(bank);
+        assertThat(sampler.sample(COURSE_ID, 50)).containsExactlyInAnyOrderElementsOf(bank);
+    }
+
+    @Test
+    void emptyBankOrZeroCountGivesEmptySample() {
+        when(repository.findIdsByCourseId(COURSE_ID)).thenReturn(List.of());
+        when(repository.findIdsByCourseId(8L)).thenReturn(bank(5));
+
+        assertThat(sampler.sample(COURSE_ID, 10)).isEmpty();
+        assertThat(sampler.sample(8L, 0)).isEmpty();
+    }
+
+    @Test
+    void everyQuestionIsPickedAboutEquallyOften() {
+        when(repository.findIdsByCourseId(COURSE_ID)).thenReturn(bank(20));
+        int rounds = 20_000;
+        Map<Long, Integer> picks = new HashMap<>();
+
+        for (int round = 0; round < rounds; round++) {
+            sampler.sample(COURSE_ID, 5).forEach(id -> picks.merge(id, 1, Integer::sum));
+        }
+
+        // Expected 5/20 of the rounds each (5,000); a biased draw would be far outside +-10%
+        assertThat(picks).hasSize(20);
+        assertThat(picks.values()).allSatisfy(count -> assertThat(count).isBetween(4_500, 5_500));
+    }
+
+    @Test
+    void bankIsLoadedOnceUntilEvicted() {
+        when(repository.findIdsByCourseId(COURSE_ID)).thenReturn(bank(3)).thenReturn(bank(4));
+
+        sampler.sample(COURSE_ID, 10);
+        assertThat(sampler.sample(COURSE_ID, 10)).hasSize(3);
+        verify(repository, times(1)).findIdsByCourseId(COURSE_ID);
+
+        sampler.evict(COURSE_ID);
+        assertThat(sampler.sample(COURSE_ID, 10)).hasSize(4);
+        verify(repository, times(2)).findIdsByCourseId(COURSE_ID);
+    }
+
+    // Sparse ids, as a bank with deleted questions would have
+    private static List<Long> bank(int size) {
+        return LongStream.range(0, size).map(i -> 1_000 + i * 37).boxed().toList();
+    }
+}
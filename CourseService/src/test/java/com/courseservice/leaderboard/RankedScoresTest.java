@@ -0,0 +1,72 @@
+package com.courseservice.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RankedScoresTest {
+
+    // Same order as the treap: higher score first, then lower student id
+    private static final Comparator<long[]> RANK_ORDER = Comparator.<long[]>comparingLong(e -> -e[0])
+            .thenComparingLong(e -> e[1]);
+
+    @Test
+    void ranksByScoreThenStudentId() {
+        RankedScores ranked = new RankedScores();
+        ranked.insert(50, 3);
+        ranked.insert(80, 2);
+        ranked.insert(50, 1);
+
+        assertThat(ranked.top(10)).containsExactly(new long[]{80, 2}, new long[]{50, 1}, new long[]{50, 3});
+        assertThat(ranked.rankOf(80, 2)).isEqualTo(1);
+        assertThat(ranked.rankOf(50, 1)).isEqualTo(2);
+        assertThat(ranked.rankOf(50, 3)).isEqualTo(3);
+        assertThat(ranked.top(0)).isEmpty();
+        assertThat(new RankedScores().top(5)).isEmpty();
+    }
+
+    @Test
+    void agreesWithASortedListUnderRandomInsertsAndRemoves() {
+        Random random = new Random(7);
+        RankedScores ranked = new RankedScores();
+        TreeSet<long[]> oracle = new TreeSet<>(RANK_ORDER);
+        long[] scoreOf = new long[500];
+        boolean[] present = new boolean[500];
+
+        for (int step = 0; step < 20_000; step++) {
+            int student = random.nextInt(scoreOf.length);
+            if (present[student]) {
+                // A student's score changes the way Board does it: remove, then insert the new one
+                ranked.remove(scoreOf[student], student);
+                oracle.remove(new long[]{scoreOf[student], student});
+                present[student] = false;
+            }
+            if (random.nextInt(4) > 0) {
+                scoreOf[student] = random.nextInt(50); // plenty of ties
+                ranked.insert(scoreOf[student], student);
+                oracle.add(new long[]{scoreOf[student], student});
+                present[student] = true;
+            }
+
+            if (step % 100 == 0) {
+                assertMatches(ranked, oracle, random.nextInt(oracle.size() + 2));
+            }
+        }
+        assertMatches(ranked, oracle, oracle.size());
+    }
+
+    private static void assertMatches(RankedScores ranked, TreeSet<long[]> oracle, int k) {
+        List<long[]> sorted = new ArrayList<>(oracle);
+        assertThat(ranked.size()).isEqualTo(sorted.size());
+        assertThat(ranked.top(k)).containsExactlyElementsOf(sorted.subList(0, Math.min(k, sorted.size())));
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(ranked.rankOf(sorted.get(i)[0], sorted.get(i)[1])).isEqualTo(i + 1);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.courseservice.migration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class QuizStorageMigratorTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final QuizStorageMigrator migrator = new QuizStorageMigrator(
+            jdbcTemplate, mock(PlatformTransactionManager.class), new ObjectMapper(), 100, 10, 3);
+
+    @Test
+    void parsesLegacyAnswers() {
+        assertThat(migrator.tryParseLegacy("{\"1\":\"a\",\"20\":null}"))
+                .containsEntry(1L, "a")
+                .containsEntry(20L, null)
+                .hasSize(2);
+        assertThat(migrator.tryParseLegacy("null")).isEmpty();
+    }
+
+    @Test
+    void unreadablePayloadIsReportedNotEmptied() {
+        // null keeps the row out of the re-encode, so its answers_json is never cleared
+        assertThat(migrator.tryParseLegacy("{\"1\":\"a\"")).isNull();
+        assertThat(migrator.tryParseLegacy("{\"x\":\"a\"}")).isNull();
+        // The read path still shows such a row as having no answers
+        assertThat(migrator.parseLegacy("not json")).isEmpty();
+    }
+
+    @Test
+    void swapWaitsForTheExclusiveLockOnlyBrieflyAndRetries() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("text"));
+        doThrow(new CannotAcquireLockException("canceling statement due to lock timeout"))
+                .doNothing()
+                .when(jdbcTemplate).execute(startsWith("LOCK TABLE"));
+
+        migrator.swapOptionsColumns();
+
+        verify(jdbcTemplate, times(2)).execute("SET LOCAL lock_timeout = '10ms'");
+        verify(jdbcTemplate).execute("ALTER TABLE quiz_questions RENAME COLUMN options_jsonb TO options_json");
+        verify(jdbcTemplate).execute(startsWith("ALTER TABLE quiz_questions VALIDATE"));
+    }
+
+    @Test
+    void swapGivesUpAfterItsAttemptsAndLeavesTheColumnsAlone() {
+        doThrow(new CannotAcquireLockException("canceling statement due to lock timeout"))
+                .when(jdbcTemplate).execute(startsWith("LOCK TABLE"));
+
+        assertThatThrownBy(migrator::swapOptionsColumns).isInstanceOf(CannotAcquireLockException.class);
+
+        verify(jdbcTemplate, times(3)).execute(startsWith("LOCK TABLE"));
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE quiz_questions RENAME"));
+    }
+}
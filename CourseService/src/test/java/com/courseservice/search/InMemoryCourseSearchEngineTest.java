@@ -0,0 +1,146 @@
+package com.courseservice.search;
+
+import com.courseservice.Service.CourseService;
+import com.courseservice.cache.AnswerKeyCache;
+import com.courseservice.cache.CourseCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.DTO.CourseRequestDTO;
+import com.persistence.Entity.Course;
+import com.persistence.Entity.User;
+import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.UserRepo;
+import com.persistence.outbox.OutboxWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CourseService writes against the embedded database with the in-memory search engine,
+ * the setup this engine exists for. Tests run outside a test transaction so commits and
+ * rollbacks are real.
+ */
+@DataJpaTest(properties = {
+        "course.search.engine=in-memory",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@Import({CourseService.class, CourseCache.class, AnswerKeyCache.class, InMemoryCourseSearchEngine.class,
+        InMemoryCourseSearchEngineTest.JacksonConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryCourseSearchEngineTest {
+
+    @TestConfiguration
+    static class JacksonConfig {
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    @MockBean
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseSearchEngine searchEngine;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User instructor;
+
+    @BeforeEach
+    void createInstructor() {
+        User user = new User();
+        user.setFullName("Instructor " + UUID.randomUUID());
+        user.setEmail(UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("not-a-real-hash");
+        user.setRole(User.Role.INSTRUCTOR);
+        instructor = userRepo.save(user);
+    }
+
+    @Test
+    void committedCourseIsFoundByPrefixAndTypo() {
+        Long id = create("Kubernetes Fundamentals", "devops");
+
+        assertThat(searchEngine.search("kuber", 10)).contains(id);
+        assertThat(searchEngine.search("kubernetis fundamentels", 10)).contains(id);
+        assertThat(searchEngine.search("devops", 10)).contains(id);
+    }
+
+    @Test
+    void betterMatchesRankFirst() {
+        Long exact = create("Graph Algorithms", "computer science");
+        Long partial = create("Graphic Design Basics", "design");
+
+        assertThat(searchEngine.search("graph", 10)).startsWith(exact, partial);
+    }
+
+    @Test
+    void rolledBackCreateLeavesNoPhantomEntry() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            create("Phantom Zymurgy Course", "brewing");
+            status.setRollbackOnly();
+        });
+
+        assertThat(searchEngine.search("zymurgy", 10)).isEmpty();
+    }
+
+    @Test
+    void deleteIsAppliedOnCommit() {
+        Long id = create("Quaternion Rotations", "math");
+        assertThat(searchEngine.search("quaternion", 10)).containsExactly(id);
+
+        courseService.deleteCourse(id);
+
+        assertThat(searchEngine.search("quaternion", 10)).isEmpty();
+    }
+
+    @Test
+    void writesFromAnotherInstanceArriveThroughChangeEvents() {
+        // Saved straight through the repository, as another instance would: this index never saw it
+        Course course = courseRepository.save(Course.builder()
+                .title("Xylophone Masterclass")
+                .description("Mallets")
+                .category("music")
+                .instructor(instructor)
+                .build());
+        assertThat(searchEngine.search("xylophone", 10)).isEmpty();
+
+        searchEngine.onCourseChanged(course.getId());
+        assertThat(searchEngine.search("xylophone", 10)).containsExactly(course.getId());
+
+        courseRepository.deleteById(course.getId());
+        searchEngine.onCourseChanged(course.getId());
+        assertThat(searchEngine.search("xylophone", 10)).isEmpty();
+    }
+
+    private Long create(String title, String category) {
+        return courseService.createCourse(CourseRequestDTO.builder()
+                .title(title)
+                .description(title + " description")
+                .category(category)
+                .instructorId(instructor.getId())
+                .build()).getContent().getId();
+    }
+}
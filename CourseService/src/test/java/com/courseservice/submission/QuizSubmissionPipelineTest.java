@@ -0,0 +1,188 @@
+package com.courseservice.submission;
+
+import com.courseservice.Service.QuizService;
+import com.courseservice.analytics.QuizAnalytics;
+import com.courseservice.cache.AnswerKey;
+import com.courseservice.event.QuizScoresGradedEvent;
+import com.courseservice.leaderboard.LeaderboardService;
+import com.persistence.DTO.QuizSubmissionStatusDTO;
+import com.persistence.DTO.SubmitRequestDTO;
+import com.persistence.Entity.QuizQuestion;
+import com.persistence.outbox.OutboxWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizSubmissionPipelineTest {
+
+    private static final long QUIZ_ID = 5L;
+    private static final long STUDENT_ID = 9L;
+
+    private final QuizService quizService = mock(QuizService.class);
+    private final QuizAnalytics quizAnalytics = mock(QuizAnalytics.class);
+    private final LeaderboardService leaderboardService = mock(LeaderboardService.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final NamedParameterJdbcTemplate namedJdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final OutboxWriter outboxWriter = mock(OutboxWriter.class);
+    private QuizSubmissionPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        AnswerKey key = AnswerKey.compile(List.of(QuizQuestion.builder().id(1L).correctAnswer("a").marks(2).build()));
+        when(quizService.answerKeyFor(QUIZ_ID)).thenReturn(key);
+        when(quizService.toSubmitResponse(anyLong(), anyInt(), anyInt())).thenCallRealMethod();
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class))).thenReturn(List.of(STUDENT_ID));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), anyInt())).thenAnswer(invocation -> {
+            int count = invocation.getArgument(2);
+            return LongStream.range(100, 100 + count).boxed().toList();
+        });
+
+        pipeline = newPipeline();
+        pipeline.start();
+    }
+
+    private QuizSubmissionPipeline newPipeline() {
+        return new QuizSubmissionPipeline(quizService, quizAnalytics, leaderboardService, jdbcTemplate,
+                namedJdbcTemplate, mock(DataSource.class), mock(PlatformTransactionManager.class), outboxWriter,
+                100, 1, 10, 30);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pipeline.stop();
+    }
+
+    @Test
+    void storedSubmissionIsGraded() throws InterruptedException {
+        QuizSubmissionStatusDTO status = submitAndAwait(STUDENT_ID);
+
+        assertThat(status.getStatus()).isEqualTo("GRADED");
+        assertThat(status.getResult().getSubmissionId()).isEqualTo(100L);
+        assertThat(status.getResult().getScore()).isEqualTo(2);
+        verify(leaderboardService).record(QUIZ_ID, STUDENT_ID, 2);
+        // One event per batch carries the scores to the other instances' leaderboards
+        ArgumentCaptor<QuizScoresGradedEvent> event = ArgumentCaptor.forClass(QuizScoresGradedEvent.class);
+        verify(outboxWriter).write(eq(LeaderboardService.SCORES_TOPIC), isNull(), event.capture());
+        assertThat(event.getValue().getScores()).singleElement()
+                .satisfies(score -> assertThat(score.getStudentId()).isEqualTo(STUDENT_ID))
+                .satisfies(score -> assertThat(score.getScore()).isEqualTo(2));
+    }
+
+    @Test
+    void failingDerivedViewsDoNotFailAStoredSubmission() throws InterruptedException {
+        doThrow(new IllegalStateException("analytics down")).when(quizAnalytics)
+                .record(anyLong(), any(), any(), any(), anyInt());
+
+        QuizSubmissionStatusDTO status = submitAndAwait(STUDENT_ID);
+
+        assertThat(status.getStatus()).isEqualTo("GRADED");
+        verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void failedInsertReportsFailed() throws InterruptedException {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        QuizSubmissionStatusDTO status = submitAndAwait(STUDENT_ID);
+
+        assertThat(status.getStatus()).isEqualTo("FAILED");
+        assertThat(status.getError()).contains("database down");
+        verifyNoInteractions(quizAnalytics, leaderboardService, outboxWriter);
+    }
+
+    @Test
+    void unknownStudentFailsWithoutInserting() throws InterruptedException {
+        QuizSubmissionStatusDTO status = submitAndAwait(404L);
+
+        assertThat(status.getStatus()).isEqualTo("FAILED");
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void badRowFailsAloneAndTheRestOfTheBatchIsStored() throws Exception {
+        long otherStudent = 11L;
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap(), eq(Long.class)))
+                .thenReturn(List.of(STUDENT_ID, otherStudent));
+        // The whole batch is rejected because of the other student's row; alone, ours goes through
+        PreparedStatement ps = mock(PreparedStatement.class);
+        doThrow(new SQLException("violates foreign key constraint")).when(ps).setLong(3, otherStudent);
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            try {
+                for (int i = 0; i < setter.getBatchSize(); i++) setter.setValues(ps, i);
+            } catch (SQLException e) {
+                throw new DataIntegrityViolationException(e.getMessage());
+            }
+            return new int[setter.getBatchSize()];
+        });
+
+        // Queue both before a worker runs so they land in one batch
+        pipeline.stop();
+        pipeline = newPipeline();
+        String ours = submit(STUDENT_ID);
+        String theirs = submit(otherStudent);
+        pipeline.start();
+
+        assertThat(await(ours).getStatus()).isEqualTo("GRADED");
+        QuizSubmissionStatusDTO failed = await(theirs);
+        assertThat(failed.getStatus()).isEqualTo("FAILED");
+        assertThat(failed.getError()).contains("foreign key");
+        verify(jdbcTemplate, times(3)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+        verify(leaderboardService).record(QUIZ_ID, STUDENT_ID, 2);
+        verify(leaderboardService, never()).record(QUIZ_ID, otherStudent, 2);
+    }
+
+    @Test
+    void tokenAcceptedElsewhereIsPendingUntilItsOutcomeIsStored() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString()))
+                .thenReturn(List.of());
+        String recent = Long.toString(System.currentTimeMillis(), 36) + "-0a1b";
+        String expired = Long.toString(System.currentTimeMillis() - 31 * 60_000L, 36) + "-0a1b";
+
+        assertThat(pipeline.getStatus(recent).getStatus()).isEqualTo("PENDING");
+        assertThatThrownBy(() -> pipeline.getStatus(expired))
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    private QuizSubmissionStatusDTO submitAndAwait(long studentId) throws InterruptedException {
+        return await(submit(studentId));
+    }
+
+    private String submit(long studentId) {
+        SubmitRequestDTO request = new SubmitRequestDTO();
+        request.setQuizId(QUIZ_ID);
+        request.setStudentId(studentId);
+        request.setAnswers(Map.of(1L, "A"));
+        return pipeline.submit(request).getToken();
+    }
+
+    private QuizSubmissionStatusDTO await(String token) throws InterruptedException {
+        for (int i = 0; i < 250; i++) {
+            QuizSubmissionStatusDTO status = pipeline.getStatus(token);
+            if (!"PENDING".equals(status.getStatus())) return status;
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Submission " + token + " still pending");
+    }
+}
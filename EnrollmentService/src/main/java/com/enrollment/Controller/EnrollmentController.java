@@ -3,6 +3,8 @@ package com.enrollment.Controller;
 import com.enrollment.Service.EnrollmentService;
 import com.persistence.DTO.ApiResponse;
 import com.persistence.DTO.EnrollmentDTO;
+import com.persistence.DTO.PublisherStatsDTO;
+import com.persistence.messaging.EventPublisher;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
@@ -18,6 +20,7 @@ import java.util.NoSuchElementException;
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final EventPublisher eventPublisher;
 
     // 🔍 SEARCH ENROLLMENTS (HATEOAS)
     @GetMapping("/search")
@@ -81,17 +84,19 @@ public class EnrollmentController {
         return ResponseEntity.ok(ApiResponse.ok("Enrollments fetched successfully", enrollments));
     }
 
-    // 👁️ GET SINGLE ENROLLMENT BY ID (for self link in service)
+    // 👁️ GET SINGLE ENROLLMENT BY ID (HATEOAS)
     @GetMapping("/{enrollmentId}")
     @PreAuthorize("hasAnyRole('STUDENT', 'INSTRUCTOR', 'ADMIN')")
     public ResponseEntity<ApiResponse<EntityModel<EnrollmentDTO>>> getEnrollmentById(@PathVariable Long enrollmentId) {
-        // ⚠️ Only for HATEOAS self-links; simple finder
-        var allEnrollments = enrollmentService.searchEnrollments(null, null, null, null, null)
-                .getContent().stream()
-                .filter(e -> e.getContent().getId().equals(enrollmentId))
-                .findFirst()
-                .orElseThrow(() -> new NoSuchElementException("Enrollment not found with ID " + enrollmentId));
-
-        return ResponseEntity.ok(ApiResponse.ok("Enrollment fetched successfully", allEnrollments));
+        EntityModel<EnrollmentDTO> enrollment = enrollmentService.getEnrollmentById(enrollmentId);
+
+        return ResponseEntity.ok(ApiResponse.ok("Enrollment fetched successfully", enrollment));
+    }
+
+    // 📊 EVENT PUBLISHER STATS
+    @GetMapping("/events/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<PublisherStatsDTO>> getPublisherStats() {
+        return ResponseEntity.ok(ApiResponse.ok("Event publisher stats fetched successfully", eventPublisher.stats()));
     }
 }
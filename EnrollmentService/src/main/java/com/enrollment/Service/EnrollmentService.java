@@ -1,5 +1,6 @@
 package com.enrollment.Service;
 
+import com.enrollment.Controller.EnrollmentController;
 import com.enrollment.event.EnrollmentCreatedEvent;
 import com.persistence.DTO.EnrollmentDTO;
 import com.persistence.Entity.Course;
@@ -8,18 +9,22 @@ import com.persistence.Entity.User;
 import com.persistence.Repository.CourseRepository;
 import com.persistence.Repository.EnrollmentRepository;
 import com.persistence.Repository.UserRepo;
+import com.persistence.hateoas.LeanMode;
+import com.persistence.hateoas.LinkTemplate;
+import com.persistence.outbox.OutboxWriter;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -35,7 +40,14 @@ public class EnrollmentService {
     private final EnrollmentRepository enrollmentRepository;
     private final UserRepo userRepo;
     private final CourseRepository courseRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
+
+    private static final LinkTemplate ENROLLMENT_BY_ID =
+            LinkTemplate.of(EnrollmentController.class, "getEnrollmentById");
+    private static final LinkTemplate ENROLLMENTS_BY_STUDENT =
+            LinkTemplate.of(EnrollmentController.class, "getEnrollmentsByStudent");
+    private static final LinkTemplate ENROLLMENTS_BY_COURSE =
+            LinkTemplate.of(EnrollmentController.class, "getEnrollmentsByCourse");
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -75,6 +87,8 @@ public class EnrollmentService {
             predicates.add(cb.like(cb.lower(root.get("course").get("title")), coursePattern));
         }
 
+        root.fetch("student", JoinType.INNER);
+        root.fetch("course", JoinType.INNER);
         cq.select(root).where(cb.and(predicates.toArray(new Predicate[0])));
         List<Enrollment> results = entityManager.createQuery(cq).getResultList();
 
@@ -83,13 +97,17 @@ public class EnrollmentService {
                 .map(this::toModel)
                 .collect(Collectors.toList());
 
+        if (LeanMode.isRequested()) {
+            return CollectionModel.of(enrollments);
+        }
         return CollectionModel.of(enrollments,
-                linkTo(methodOn(com.enrollment.Controller.EnrollmentController.class)
+                linkTo(methodOn(EnrollmentController.class)
                         .searchEnrollments(studentId, courseId, completed, studentName, courseTitle))
                         .withSelfRel());
     }
 
     // 🧑‍🎓 ENROLL A STUDENT IN A COURSE
+    @Transactional
     public EntityModel<EnrollmentDTO> enrollStudent(Long studentId, Long courseId) {
         User student = userRepo.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
@@ -111,7 +129,7 @@ public class EnrollmentService {
                         .build()
         );
 
-        // ✅ Kafka event (unchanged)
+        // ✅ Kafka event (outbox, published after commit by OutboxRelay)
         EnrollmentCreatedEvent event = EnrollmentCreatedEvent.builder()
                 .enrollmentId(saved.getId())
                 .studentId(student.getId())
@@ -119,12 +137,20 @@ public class EnrollmentService {
                 .courseTitle(course.getTitle())
                 .studentEmail(student.getEmail())
                 .build();
-        kafkaTemplate.send("enrollment-created-topic", event);
-        log.info("✅ Enrollment event sent: {}", event.getMessage());
+        outboxWriter.write("enrollment-created-topic", saved.getId(), event);
+        log.info("✅ Enrollment event queued: {}", event.getMessage());
 
         return toModel(mapToDTO(saved));
     }
 
+    // 👁️ GET SINGLE ENROLLMENT BY ID (single keyed read, student + course fetch-joined)
+    public EntityModel<EnrollmentDTO> getEnrollmentById(Long enrollmentId) {
+        Enrollment enrollment = enrollmentRepository.findWithStudentAndCourseById(enrollmentId)
+                .orElseThrow(() -> new NoSuchElementException("Enrollment not found with ID " + enrollmentId));
+
+        return toModel(mapToDTO(enrollment));
+    }
+
     // 🧩 PRIVATE DTO MAPPER (UNCHANGED)
     private EnrollmentDTO mapToDTO(Enrollment enrollment) {
         return EnrollmentDTO.builder()
@@ -145,15 +171,15 @@ public class EnrollmentService {
                 .build();
     }
 
-    // 🧭 HATEOAS Link Wrapper
+    // 🧭 HATEOAS Link Wrapper (precompiled templates, lean = no links)
     private EntityModel<EnrollmentDTO> toModel(EnrollmentDTO dto) {
+        if (LeanMode.isRequested()) {
+            return EntityModel.of(dto);
+        }
         return EntityModel.of(dto,
-                linkTo(methodOn(com.enrollment.Controller.EnrollmentController.class)
-                        .getEnrollmentById(dto.getId())).withSelfRel(),
-                linkTo(methodOn(com.enrollment.Controller.EnrollmentController.class)
-                        .getEnrollmentsByStudent(dto.getStudent().getId())).withRel("student-enrollments"),
-                linkTo(methodOn(com.enrollment.Controller.EnrollmentController.class)
-                        .getEnrollmentsByCourse(dto.getCourse().getId())).withRel("course-enrollments"));
+                ENROLLMENT_BY_ID.link("self", dto.getId()),
+                ENROLLMENTS_BY_STUDENT.link("student-enrollments", dto.getStudent().getId()),
+                ENROLLMENTS_BY_COURSE.link("course-enrollments", dto.getCourse().getId()));
     }
 
     // 📚 GET ENROLLMENTS BY STUDENT
@@ -167,9 +193,10 @@ public class EnrollmentService {
                 .map(this::toModel)
                 .collect(Collectors.toList());
 
-        return CollectionModel.of(list,
-                linkTo(methodOn(com.enrollment.Controller.EnrollmentController.class)
-                        .getEnrollmentsByStudent(studentId)).withSelfRel());
+        if (LeanMode.isRequested()) {
+            return CollectionModel.of(list);
+        }
+        return CollectionModel.of(list, ENROLLMENTS_BY_STUDENT.link("self", studentId));
     }
 
     // 📘 GET ENROLLMENTS BY COURSE
@@ -183,8 +210,9 @@ public class EnrollmentService {
                 .map(this::toModel)
                 .collect(Collectors.toList());
 
-        return CollectionModel.of(list,
-                linkTo(methodOn(com.enrollment.Controller.EnrollmentController.class)
-                        .getEnrollmentsByCourse(courseId)).withSelfRel());
+        if (LeanMode.isRequested()) {
+            return CollectionModel.of(list);
+        }
+        return CollectionModel.of(list, ENROLLMENTS_BY_COURSE.link("self", courseId));
     }
 }
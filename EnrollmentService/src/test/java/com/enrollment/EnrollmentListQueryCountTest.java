@@ -0,0 +1,157 @@
+package com.enrollment;
+
+import com.enrollment.Service.EnrollmentService;
+import com.persistence.Entity.Course;
+import com.persistence.Entity.Enrollment;
+import com.persistence.Entity.User;
+import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.EnrollmentRepository;
+import com.persistence.Repository.UserRepo;
+import com.persistence.outbox.OutboxWriter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The enrollment list endpoints must issue a fixed number of statements however many rows
+ * they return: student and course are fetched with the enrollments, never one by one.
+ * Each case is measured with a few rows and again with ten times as many.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(EnrollmentService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnrollmentListQueryCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 30;
+
+    @MockBean
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void createStudentAndCourse() {
+        student = user(User.Role.STUDENT);
+        course = course();
+    }
+
+    @Test
+    void searchEnrollmentsIsOneQuery() {
+        enrollOthersInCourse(FEW);
+        long few = count(() -> assertThat(enrollmentService
+                .searchEnrollments(null, course.getId(), null, null, null).getContent()).hasSize(FEW));
+        enrollOthersInCourse(MANY - FEW);
+        long many = count(() -> assertThat(enrollmentService
+                .searchEnrollments(null, course.getId(), null, null, null).getContent()).hasSize(MANY));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void enrollmentsByCourseLoadsTheCourseThenOneQuery() {
+        enrollOthersInCourse(FEW);
+        long few = count(() -> assertThat(enrollmentService
+                .getEnrollmentsByCourse(course.getId()).getContent()).hasSize(FEW));
+        enrollOthersInCourse(MANY - FEW);
+        long many = count(() -> assertThat(enrollmentService
+                .getEnrollmentsByCourse(course.getId()).getContent()).hasSize(MANY));
+
+        assertThat(few).isEqualTo(2);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void enrollmentsByStudentLoadsTheStudentThenOneQuery() {
+        enrollStudentInOtherCourses(FEW);
+        long few = count(() -> assertThat(enrollmentService
+                .getEnrollmentsByStudent(student.getId()).getContent()).hasSize(FEW));
+        enrollStudentInOtherCourses(MANY - FEW);
+        long many = count(() -> assertThat(enrollmentService
+                .getEnrollmentsByStudent(student.getId()).getContent()).hasSize(MANY));
+
+        assertThat(few).isEqualTo(2);
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long count(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // A distinct student per enrollment, so a lazy student load would show up per row
+    private void enrollOthersInCourse(int students) {
+        for (int i = 0; i < students; i++) {
+            enroll(user(User.Role.STUDENT), course);
+        }
+    }
+
+    private void enrollStudentInOtherCourses(int courses) {
+        for (int i = 0; i < courses; i++) {
+            enroll(student, course());
+        }
+    }
+
+    private void enroll(User student, Course course) {
+        enrollmentRepository.save(Enrollment.builder()
+                .student(student)
+                .course(course)
+                .enrollmentDate(LocalDateTime.now())
+                .progress(0f)
+                .completed(false)
+                .build());
+    }
+
+    private User user(User.Role role) {
+        User user = new User();
+        user.setFullName("User " + UUID.randomUUID());
+        user.setEmail(UUID.randomUUID() + "@test.local");
+        user.setPasswordHash("not-a-real-hash");
+        user.setRole(role);
+        return userRepo.save(user);
+    }
+
+    private Course course() {
+        return courseRepository.save(Course.builder()
+                .title("Course " + UUID.randomUUID())
+                .description("Query count fixture")
+                .category("fixtures")
+                .instructor(user(User.Role.INSTRUCTOR))
+                .build());
+    }
+}
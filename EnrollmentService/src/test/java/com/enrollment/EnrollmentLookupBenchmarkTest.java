@@ -0,0 +1,138 @@
+package com.enrollment;
+
+import com.persistence.Entity.Enrollment;
+import com.persistence.Repository.EnrollmentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression benchmark for the single-enrollment read path: the enrollments table is grown
+ * from 10k to 10M rows and findWithStudentAndCourseById is timed at each size. A keyed,
+ * fetch-joined read must stay flat; a scan would grow with the table.
+ *
+ * Tagged "benchmark" (run with ./gradlew :EnrollmentService:benchmark); needs Docker.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnrollmentLookupBenchmarkTest {
+
+    private static final int STUDENTS = 10_000;
+    private static final int COURSES = 1_000;
+    private static final long INSTRUCTOR_ID = STUDENTS + 1;
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000, 10_000_000};
+    private static final int WARMUP = 500;
+    private static final int SAMPLES = 5_000;
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create");
+        registry.add("spring.jpa.show-sql", () -> "false");
+    }
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void singleEnrollmentLookupStaysFlatAsTableGrows() {
+        seedUsersAndCourses();
+
+        long[] p50 = new long[SIZES.length];
+        int rows = 0;
+        for (int i = 0; i < SIZES.length; i++) {
+            growEnrollmentsTo(rows, SIZES[i]);
+            rows = SIZES[i];
+
+            long[] nanos = measureLookups(rows);
+            p50[i] = percentile(nanos, 50);
+            System.out.printf("enrollments=%,d  p50=%,dus  p99=%,dus%n",
+                    rows, p50[i] / 1_000, percentile(nanos, 99) / 1_000);
+        }
+
+        // 1000x more rows may cost one more btree level, not a proportional slowdown
+        long smallest = p50[0];
+        long largest = p50[SIZES.length - 1];
+        assertThat(largest).isLessThan(smallest * 3 + 1_000_000);
+    }
+
+    private void seedUsersAndCourses() {
+        jdbc.update("INSERT INTO users (id, full_name, email, password_hash, role, created_at, updated_at) " +
+                "SELECT g, 'Student ' || g, 'student' || g || '@bench.test', 'x', 'STUDENT', now(), now() " +
+                "FROM generate_series(1, ?) g", STUDENTS);
+        jdbc.update("INSERT INTO users (id, full_name, email, password_hash, role, created_at, updated_at) " +
+                "VALUES (?, 'Instructor', 'instructor@bench.test', 'x', 'INSTRUCTOR', now(), now())", INSTRUCTOR_ID);
+        jdbc.update("INSERT INTO courses (id, title, description, instructor_id, category, created_at, updated_at) " +
+                "SELECT g, 'Course ' || g, 'Benchmark course', ?, 'bench', now(), now() " +
+                "FROM generate_series(1, ?) g", INSTRUCTOR_ID, COURSES);
+    }
+
+    // Row g is (student g % STUDENTS + 1, course g / STUDENTS + 1), so every pair is distinct
+    private void growEnrollmentsTo(int from, int to) {
+        jdbc.update("INSERT INTO enrollments (student_id, course_id, enrollment_date, progress, completed, created_at, updated_at) " +
+                "SELECT g % ? + 1, g / ? + 1, now(), 0, false, now(), now() " +
+                "FROM generate_series(?, ?) g", STUDENTS, STUDENTS, from, to - 1);
+        jdbc.execute("ANALYZE enrollments");
+    }
+
+    private long[] measureLookups(int rows) {
+        long maxId = jdbc.queryForObject("SELECT max(id) FROM enrollments", Long.class);
+        long minId = maxId - rows + 1;
+
+        for (int i = 0; i < WARMUP; i++) {
+            lookup(randomId(minId, maxId));
+        }
+
+        long[] nanos = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long id = randomId(minId, maxId);
+            long start = System.nanoTime();
+            lookup(id);
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private void lookup(long id) {
+        Enrollment enrollment = enrollmentRepository.findWithStudentAndCourseById(id).orElseThrow();
+        // Both associations must already be loaded; touching them must not query again
+        assertThat(enrollment.getStudent().getEmail()).isNotNull();
+        assertThat(enrollment.getCourse().getTitle()).isNotNull();
+    }
+
+    private static long randomId(long minId, long maxId) {
+        return ThreadLocalRandom.current().nextLong(minId, maxId + 1);
+    }
+
+    private static long percentile(long[] values, int percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)];
+    }
+}
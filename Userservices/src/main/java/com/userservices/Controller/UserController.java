@@ -137,6 +137,20 @@ public class UserController {
         }
     }
 
+    // 🔔 NOTIFICATION PREFERENCE (IMMEDIATE or DIGEST)
+    @PutMapping("/{id}/notification-preference")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STUDENT', 'INSTRUCTOR')")
+    public ResponseEntity<ApiResponse<User.NotificationMode>> updateNotificationPreference(
+            @PathVariable Long id, @RequestParam User.NotificationMode mode) {
+        try {
+            userServices.updateNotificationMode(id, mode);
+            return ResponseEntity.ok(ApiResponse.ok("Notification preference updated", mode));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     // 🔹 DELETE USER
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
 @EnableFeignClients
+@EnableScheduling
 @EntityScan(basePackages = {"com.userservices.entity", "com.persistence.Entity"})
 @EnableJpaRepositories(basePackages = {"com.userservices.repository", "com.persistence.Repository"})
 public class Main {
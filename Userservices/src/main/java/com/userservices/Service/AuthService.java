@@ -2,13 +2,12 @@ package com.userservices.Service;
 
 import com.persistence.Entity.User;
 import com.persistence.Repository.UserRepo;
+import com.userservices.security.ResetTokenStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
 import java.util.NoSuchElementException;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -17,18 +16,14 @@ public class AuthService {
     private final UserRepo userRepo;
     private final EmailService emailService;
     private final PasswordEncoder passwordEncoder;// your existing email sender
+    private final ResetTokenStore resetTokenStore;
 
     public String forgotPassword(String email) {
         User user = userRepo.findByEmail(email)
                 .orElseThrow(() -> new NoSuchElementException("User not found with email: " + email));
 
-        // Generate random reset token
-        String token = UUID.randomUUID().toString();
-
-        // Set token & expiry (valid for 15 minutes)
-        user.setResetToken(token);
-        user.setResetTokenExpiry(LocalDateTime.now().plusMinutes(15));
-        userRepo.save(user);
+        // Random token; only its hash is kept (replaces any earlier link)
+        String token = resetTokenStore.issue(user.getId());
 
         // Create reset link (frontend or backend endpoint)
         String resetLink = "http://localhost:8080/auth/reset-password?token=" + token;
@@ -41,31 +36,24 @@ public class AuthService {
                 You requested to reset your password. Click the link below:
                 %s
                 
-                This link is valid for 15 minutes.
+                This link is valid for %d minutes.
                 
                 If you didn't request this, ignore this email.
-                """, user.getFullName(), resetLink);
+                """, user.getFullName(), resetLink, resetTokenStore.ttl().toMinutes());
 
-        emailService.sendEmail(user.getEmail(), subject, body);
+        emailService.sendEmail(user, subject, body);
 
         return "Password reset link sent to " + email;
     }
     public String resetPassword(String token, String newPassword) {
-        User user = userRepo.findByResetToken(token)
-                .orElseThrow(() -> new NoSuchElementException("Invalid or expired token"));
+        // Hash lookup in the token store; consumes the token
+        Long userId = resetTokenStore.redeem(token);
 
-        if (user.getResetTokenExpiry().isBefore(LocalDateTime.now())) {
-            throw new IllegalArgumentException("Token expired");
+        // Encrypt password and update just that column
+        if (userRepo.updatePasswordHash(userId, passwordEncoder.encode(newPassword)) == 0) {
+            throw new NoSuchElementException("User not found: " + userId);
         }
 
-        // Encrypt password before saving
-        user.setPasswordHash(passwordEncoder.encode(newPassword));
-
-        // Clear token after reset
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
-        userRepo.save(user);
-
         return "Password reset successful";
     }
 
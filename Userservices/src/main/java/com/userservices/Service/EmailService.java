@@ -6,22 +6,18 @@ import com.persistence.Entity.EmailLog;
 import com.persistence.Entity.User;
 import com.persistence.Repository.EmailLogRepository;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 
 import java.time.LocalDateTime;
 
+// Queues mails as PENDING email_logs rows and returns; EmailDispatcher does the SMTP work
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
-
     private final EmailLogRepository emailLogRepository;
 
-    public EmailService(JavaMailSender mailSender, EmailLogRepository emailLogRepository) {
-        this.mailSender = mailSender;
+    public EmailService(EmailLogRepository emailLogRepository) {
         this.emailLogRepository = emailLogRepository;
     }
 
@@ -30,35 +26,25 @@ public class EmailService {
         String body = "Thank you " + user.getFullName() +
                 ", you have successfully registered for " + course.getTitle() + ".";
 
-        EmailLog emailLog = EmailLog.builder()
+        enqueue(user, course, subject, body);
+    }
+
+    public void sendEmail(User user, String subject, String body) {
+        enqueue(user, null, subject, body);
+    }
+
+    private void enqueue(User user, Course course, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        emailLogRepository.save(EmailLog.builder()
                 .user(user)
                 .course(course)
                 .recipientEmail(user.getEmail())
                 .subject(subject)
                 .body(body)
-                .sentAt(LocalDateTime.now())
-                .status(EmailLog.Status.SENT)
-                .build();
-
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail());
-            message.setSubject(subject);
-            message.setText(body);
-            mailSender.send(message);
-
-            emailLogRepository.save(emailLog);
-        } catch (Exception e) {
-            emailLog.setStatus(EmailLog.Status.FAILED);
-            emailLog.setErrorMessage(e.getMessage());
-            emailLogRepository.save(emailLog);
-        }
-    }
-    public void sendEmail(String to, String subject, String body) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(body);
-        mailSender.send(message);
+                .sentAt(now)
+                .status(EmailLog.Status.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .build());
     }
 }
@@ -6,13 +6,16 @@ import com.persistence.Entity.Course;
 import com.persistence.Entity.User;
 import com.persistence.Repository.UserRepo;
 import com.persistence.Repository.CourseRepository;
+import com.persistence.security.CurrentUser;
 import com.userservices.FeignClient.CourseClient;
 import jakarta.persistence.*;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.transaction.Transactional;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -69,7 +72,8 @@ public class UserServices {
             predicates.add(cb.equal(root.get("role"), User.Role.valueOf(roleKey)));
         }
 
-        cq.select(root).where(cb.and(predicates.toArray(new Predicate[0])));
+        root.fetch("coursesTaught", JoinType.LEFT);
+        cq.select(root).distinct(true).where(cb.and(predicates.toArray(new Predicate[0])));
         List<User> users = entityManager.createQuery(cq).getResultList();
 
         return users.stream()
@@ -80,7 +84,7 @@ public class UserServices {
     // ✅ Search users by course title
     public List<UserDTO> searchByCourseTitle(String title) {
         if (title == null || title.trim().isEmpty()) {
-            return userRepo.findAll()
+            return userRepo.findAllWithCoursesTaught()
                     .stream()
                     .map(this::convertToDTO)
                     .collect(Collectors.toList());
@@ -89,22 +93,19 @@ public class UserServices {
         // Find users teaching courses that contain the title
         List<User> users = userRepo.findByCourseTitleContainingIgnoreCase(title.trim());
 
-        // Filter the courses to include only those matching the title
+        // Filter the courses to include only those matching the title (in the DTO: the managed
+        // collection is orphan-removing, replacing it would fail or delete courses on commit)
         return users.stream()
-                .map(user -> {
-                    List<Course> filteredCourses = user.getCoursesTaught().stream()
-                            .filter(c -> c.getTitle() != null &&
-                                    c.getTitle().toLowerCase().contains(title.toLowerCase()))
-                            .collect(Collectors.toList());
-                    user.setCoursesTaught(filteredCourses);
-                    return convertToDTO(user);
-                })
+                .map(user -> convertToDTO(user, user.getCoursesTaught().stream()
+                        .filter(c -> c.getTitle() != null &&
+                                c.getTitle().toLowerCase().contains(title.toLowerCase()))
+                        .collect(Collectors.toList())))
                 .collect(Collectors.toList());
     }
 
     // ✅ Return all users
     public List<UserDTO> getAll() {
-        return userRepo.findAll()
+        return userRepo.findAllWithCoursesTaught()
                 .stream()
                 .map(this::convertToDTO)
                 .toList();
@@ -112,13 +113,17 @@ public class UserServices {
 
     // ✅ Return single user by ID
     public UserDTO getById(Long id) {
-        return userRepo.findById(id)
+        return userRepo.findWithCoursesTaughtById(id)
                 .map(this::convertToDTO)
                 .orElse(null);
     }
 
     // ✅ Convert Entity → DTO (made public for controller compatibility)
     public UserDTO convertToDTO(User user) {
+        return convertToDTO(user, user.getCoursesTaught());
+    }
+
+    private UserDTO convertToDTO(User user, List<Course> coursesTaught) {
         return UserDTO.builder()
                 .id(user.getId())
                 .fullName(user.getFullName())
@@ -126,8 +131,8 @@ public class UserServices {
                 .role(user.getRole().name())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
-                .coursesTaught(user.getCoursesTaught() != null
-                        ? user.getCoursesTaught().stream()
+                .coursesTaught(coursesTaught != null
+                        ? coursesTaught.stream()
                         .map(course -> CourseDTO.builder()
                                 .id(course.getId())
                                 .title(course.getTitle())
@@ -180,6 +185,18 @@ public class UserServices {
         }).orElseThrow(() -> new NoSuchElementException("User not found with ID: " + id));
     }
 
+    // ✅ Set how event notifications are mailed (immediately or as a digest)
+    public void updateNotificationMode(Long id, User.NotificationMode mode) {
+        // Users change only their own preference; admins may change anyone's
+        CurrentUser caller = CurrentUser.get();
+        if (!caller.isAdmin() && !id.equals(caller.requireUserId(userRepo))) {
+            throw new AccessDeniedException("You can only change your own notification preference");
+        }
+        if (userRepo.updateNotificationMode(id, mode) == 0) {
+            throw new NoSuchElementException("User not found with ID: " + id);
+        }
+    }
+
     // ✅ Delete user
     public void delete(Long id) {
         userRepo.deleteById(id);
@@ -1,7 +1,11 @@
 package com.userservices.config;
 
+import com.persistence.Repository.RevokedTokenRepository;
+import com.persistence.security.CachingJwtDecoder;
 import com.persistence.security.CustomAccessDeniedHandler;
 import com.persistence.security.CustomAuthenticationEntryPoint;
+import com.persistence.security.RevocationList;
+import com.persistence.security.TokenRevocationListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,6 +20,7 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtGra
 import org.springframework.security.web.SecurityFilterChain;
 
 import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
 
 @Configuration
 @EnableMethodSecurity(prePostEnabled = true)
@@ -23,6 +28,12 @@ public class SecurityConfig {
 
     @Value("${jwt.secret}")
     private String secretKey;
+    @Value("${jwt.cache.max-entries:10000}")
+    private long jwtCacheMaxEntries;
+    @Value("${jwt.cache.max-ttl-minutes:60}")
+    private long jwtCacheMaxTtlMinutes;
+    @Value("${jwt.revocation.bits-per-bucket:262144}")
+    private int revocationBitsPerBucket;
 
     @Bean
     public CustomAccessDeniedHandler accessDeniedHandler() {
@@ -44,6 +55,9 @@ public class SecurityConfig {
                         // admin protected routes
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
+                        // every role sets its own notification preference (ownership checked in UserServices)
+                        .requestMatchers("/api/users/*/notification-preference").hasAnyRole("ADMIN", "STUDENT", "INSTRUCTOR")
+
                         // only ADMINs can manage all users (other than registration)
                         .requestMatchers("/api/users/**").hasAnyRole("ADMIN","STUDENT")
 
@@ -66,11 +80,22 @@ public class SecurityConfig {
         return http.build();
     }
 
+    @Bean
+    public RevocationList revocationList() {
+        return new RevocationList(revocationBitsPerBucket);
+    }
+
+    @Bean
+    public TokenRevocationListener tokenRevocationListener(RevokedTokenRepository revokedTokenRepository) {
+        return new TokenRevocationListener(revocationList(), revokedTokenRepository);
+    }
+
     @Bean
     public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withSecretKey(
+        // Verified tokens are cached until they expire, revoked ones refused; see CachingJwtDecoder
+        return new CachingJwtDecoder(NimbusJwtDecoder.withSecretKey(
                 new SecretKeySpec(secretKey.getBytes(), "HmacSHA256")
-        ).build();
+        ).build(), revocationList(), jwtCacheMaxEntries, Duration.ofMinutes(jwtCacheMaxTtlMinutes));
     }
 
     @Bean
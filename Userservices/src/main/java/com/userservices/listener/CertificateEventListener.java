@@ -1,17 +1,21 @@
 package com.userservices.listener;
 
-
-
 import com.userservices.event.CertificateGeneratedEvent;
+import com.userservices.notification.NotificationDigester;
+import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
-
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class CertificateEventListener {
 
+    private final NotificationDigester notificationDigester;
+
     @KafkaListener(topics = "certificate-generated-topic", groupId = "email-service")
     public void handleCertificateGenerated(CertificateGeneratedEvent event) {
-        System.out.println("🏅 Certificate generated for " + event.getStudentEmail());
+        notificationDigester.notify(event.getStudentId(),
+                "Certificate issued",
+                "🏅 Your certificate for \"" + event.getCourseTitle() + "\" is ready.");
     }
 }
@@ -1,16 +1,21 @@
 package com.userservices.listener;
 
-
-
 import com.userservices.event.CourseCreateEvent;
+import com.userservices.notification.NotificationDigester;
+import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 @Component
+@RequiredArgsConstructor
 public class CourseEventListener {
+
+    private final NotificationDigester notificationDigester;
+
     @KafkaListener(topics = "course-created-topic", groupId = "email-service")
     public void handleCourseCreated(CourseCreateEvent event) {
-        System.out.println("📘 New Course Created: " + event.getTitle());
+        notificationDigester.notify(event.getInstructorId(),
+                "Course published",
+                "📘 Your course \"" + event.getTitle() + "\" has been created.");
     }
 }
-
@@ -1,25 +1,21 @@
 package com.userservices.listener;
 
-
-
-
 import com.userservices.event.EnrollmentCreatedEvent;
+import com.userservices.notification.NotificationDigester;
+import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
-import org.springframework.beans.factory.annotation.Autowired;
-import com.userservices.Service.EmailService;
-
-import static org.apache.kafka.common.requests.DeleteAclsResponse.log;
 
 @Component
+@RequiredArgsConstructor
 public class EnrollmentEventListener {
 
-    @Autowired
-    private EmailService emailService;
+    private final NotificationDigester notificationDigester;
 
     @KafkaListener(topics = "enrollment-created-topic", groupId = "email-service")
     public void handleEnrollmentCreated(EnrollmentCreatedEvent event) {
-        log.info("🎓 Received enrollment event: {}", event.getMessage());
-        // you can call emailService.sendRegistrationEmail(...) if needed
+        notificationDigester.notify(event.getStudentId(),
+                "Enrollment confirmed",
+                "You are now enrolled in \"" + event.getCourseTitle() + "\".");
     }
 }
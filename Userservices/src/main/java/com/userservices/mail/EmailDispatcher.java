@@ -0,0 +1,205 @@
+package com.userservices.mail;
+
+import com.persistence.Entity.EmailLog;
+import com.persistence.Repository.EmailLogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the PENDING rows of email_logs. Each poll claims a batch of due mails (SKIP LOCKED,
+ * so instances share the queue), groups them by recipient domain, applies a per-domain rate
+ * limit and hands each domain's batch to a worker, which sends it over one SMTP connection
+ * (JavaMailSender.send(messages...) opens the transport once per call). Failed mails are
+ * retried with exponential backoff up to email.dispatch.max-attempts, then marked FAILED.
+ */
+@Slf4j
+@Component
+public class EmailDispatcher {
+
+    private final JavaMailSender mailSender;
+    private final EmailLogRepository emailLogRepository;
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final long domainIntervalNanos;
+    private final ThreadPoolExecutor workers;
+    // Earliest time (System.nanoTime) the next mail to each domain may go out
+    private final Map<String, Long> nextSlotByDomain = new ConcurrentHashMap<>();
+
+    public EmailDispatcher(JavaMailSender mailSender,
+                           EmailLogRepository emailLogRepository,
+                           DataSource dataSource,
+                           @Value("${email.dispatch.workers:4}") int workerCount,
+                           @Value("${email.dispatch.batch-size:100}") int batchSize,
+                           @Value("${email.dispatch.max-attempts:6}") int maxAttempts,
+                           @Value("${email.dispatch.lease-seconds:300}") long leaseSeconds,
+                           @Value("${email.dispatch.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                           @Value("${email.dispatch.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                           @Value("${email.dispatch.per-domain-per-second:5}") double perDomainPerSecond) {
+        this.mailSender = mailSender;
+        this.emailLogRepository = emailLogRepository;
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.domainIntervalNanos = (long) (1_000_000_000L / perDomainPerSecond);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount * 4),
+                r -> {
+                    Thread t = new Thread(r, "email-dispatch-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void relaxConstraints() {
+        try {
+            new ResourceDatabasePopulator(new ClassPathResource("db/email-dispatch.sql")).execute(dataSource);
+        } catch (RuntimeException e) {
+            log.warn("Could not update email_logs constraints: {}", e.getMessage());
+        }
+    }
+
+    // Claimed mails still in the worker queue at shutdown are picked up again after their lease
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${email.dispatch.poll-interval-ms:500}")
+    public void poll() {
+        if (workers.getQueue().remainingCapacity() == 0) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailLogRepository.DueEmail> due;
+        try {
+            due = emailLogRepository.claimDue(now, now.plus(lease), batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not claim pending emails: {}", e.getMessage());
+            return;
+        }
+        if (due.isEmpty()) return;
+
+        Map<String, List<EmailLogRepository.DueEmail>> byDomain = new HashMap<>();
+        for (EmailLogRepository.DueEmail mail : due) {
+            byDomain.computeIfAbsent(domainOf(mail.getRecipientEmail()), d -> new ArrayList<>()).add(mail);
+        }
+        byDomain.forEach(this::dispatchDomain);
+    }
+
+    private void dispatchDomain(String domain, List<EmailLogRepository.DueEmail> mails) {
+        // Take as many slots as are free right now; the rest wait for their slot in the database
+        List<EmailLogRepository.DueEmail> sendNow = new ArrayList<>();
+        long nowNanos = System.nanoTime();
+        long nextSlot = nextSlotByDomain.getOrDefault(domain, nowNanos);
+        for (EmailLogRepository.DueEmail mail : mails) {
+            if (nextSlot - nowNanos > TimeUnit.SECONDS.toNanos(1)) break;
+            sendNow.add(mail);
+            nextSlot = Math.max(nextSlot, nowNanos) + domainIntervalNanos;
+        }
+        nextSlotByDomain.put(domain, nextSlot);
+
+        List<Long> deferred = mails.subList(sendNow.size(), mails.size()).stream()
+                .map(EmailLogRepository.DueEmail::getId)
+                .toList();
+        if (!deferred.isEmpty()) {
+            emailLogRepository.defer(deferred,
+                    LocalDateTime.now().plusNanos(Math.max(0, nextSlot - System.nanoTime())));
+        }
+        if (sendNow.isEmpty()) return;
+
+        try {
+            workers.execute(() -> send(sendNow));
+        } catch (RejectedExecutionException e) {
+            emailLogRepository.defer(sendNow.stream().map(EmailLogRepository.DueEmail::getId).toList(),
+                    LocalDateTime.now());
+        }
+    }
+
+    private void send(List<EmailLogRepository.DueEmail> mails) {
+        Map<SimpleMailMessage, EmailLogRepository.DueEmail> byMessage = new IdentityHashMap<>();
+        for (EmailLogRepository.DueEmail mail : mails) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setTo(mail.getRecipientEmail());
+            message.setSubject(mail.getSubject());
+            message.setText(mail.getBody());
+            byMessage.put(message, mail);
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(byMessage.keySet().toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(byMessage, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(byMessage, e);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        for (Map.Entry<SimpleMailMessage, EmailLogRepository.DueEmail> entry : byMessage.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                recordFailure(entry.getValue(), failure);
+            }
+        }
+        if (!sent.isEmpty()) {
+            emailLogRepository.markSent(sent, EmailLog.Status.SENT, LocalDateTime.now());
+        }
+    }
+
+    private void recordFailure(EmailLogRepository.DueEmail mail, Exception failure) {
+        int attempts = mail.getAttempts() + 1;
+        if (attempts >= maxAttempts) {
+            log.warn("Giving up on email {} to {} after {} attempts: {}",
+                    mail.getId(), mail.getRecipientEmail(), attempts, failure.getMessage());
+            emailLogRepository.markAttemptFailed(mail.getId(), EmailLog.Status.FAILED, attempts, null,
+                    failure.getMessage());
+            return;
+        }
+        // 30s, 60s, 120s, ... capped, with up to 20% jitter so a relay outage does not end in a burst
+        long backoffMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempts - 1, 20));
+        backoffMillis += ThreadLocalRandom.current().nextLong(backoffMillis / 5 + 1);
+        emailLogRepository.markAttemptFailed(mail.getId(), EmailLog.Status.PENDING, attempts,
+                LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis)), failure.getMessage());
+    }
+
+    private static Map<Object, Exception> allFailed(Map<SimpleMailMessage, ?> messages, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        messages.keySet().forEach(m -> failures.put(m, e));
+        return failures;
+    }
+
+    private static String domainOf(String email) {
+        int at = email == null ? -1 : email.lastIndexOf('@');
+        return at < 0 ? "" : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,126 @@
+package com.userservices.notification;
+
+import com.persistence.Entity.User;
+import com.persistence.Repository.UserRepo;
+import com.userservices.Service.EmailService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entry point for event-driven user mail. Users in IMMEDIATE mode get one mail per event;
+ * users in DIGEST mode (the default) have their events buffered and receive a single mail
+ * once notifications.digest.window-minutes have passed since the first buffered event, or
+ * earlier when notifications.digest.max-items accumulate. A burst of enrollments therefore
+ * costs one email_logs row and one SMTP send per user instead of one per event.
+ */
+@Slf4j
+@Component
+public class NotificationDigester {
+
+    private record Item(String subject, String line) {}
+
+    private static final class Pending {
+        private final long openedAt = System.currentTimeMillis();
+        private final List<Item> items = new ArrayList<>();
+    }
+
+    private final UserRepo userRepo;
+    private final EmailService emailService;
+    private final User.NotificationMode defaultMode;
+    private final long windowMillis;
+    private final int maxItems;
+
+    // Mutated only inside compute/remove, so a flush never races an append for the same user
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    public NotificationDigester(UserRepo userRepo,
+                                EmailService emailService,
+                                @Value("${notifications.default-mode:DIGEST}") User.NotificationMode defaultMode,
+                                @Value("${notifications.digest.window-minutes:15}") long windowMinutes,
+                                @Value("${notifications.digest.max-items:50}") int maxItems) {
+        this.userRepo = userRepo;
+        this.emailService = emailService;
+        this.defaultMode = defaultMode;
+        this.windowMillis = windowMinutes * 60_000L;
+        this.maxItems = Math.max(1, maxItems);
+    }
+
+    public void notify(Long userId, String subject, String line) {
+        if (userId == null) {
+            return;
+        }
+
+        // A user with an open digest keeps it until the window closes; no preference lookup needed
+        if (!pending.containsKey(userId) && modeOf(userId) == User.NotificationMode.IMMEDIATE) {
+            send(userId, List.of(new Item(subject, line)));
+            return;
+        }
+
+        Pending buffer = pending.compute(userId, (id, existing) -> {
+            Pending p = existing != null ? existing : new Pending();
+            p.items.add(new Item(subject, line));
+            return p;
+        });
+        if (buffer.items.size() >= maxItems) {
+            flush(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.digest.flush-interval-ms:30000}")
+    public void flushDue() {
+        long cutoff = System.currentTimeMillis() - windowMillis;
+        pending.forEach((userId, buffer) -> {
+            if (buffer.openedAt <= cutoff) {
+                flush(userId);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        pending.keySet().forEach(this::flush);
+    }
+
+    private void flush(Long userId) {
+        Pending buffer = pending.remove(userId);
+        if (buffer != null && !buffer.items.isEmpty()) {
+            send(userId, buffer.items);
+        }
+    }
+
+    private User.NotificationMode modeOf(Long userId) {
+        return userRepo.findNotificationModeById(userId).orElse(defaultMode);
+    }
+
+    private void send(Long userId, List<Item> items) {
+        User user = userRepo.findById(userId).orElse(null);
+        if (user == null) {
+            log.warn("Dropping {} notification(s) for unknown user {}", items.size(), userId);
+            return;
+        }
+
+        try {
+            if (items.size() == 1) {
+                Item item = items.get(0);
+                emailService.sendEmail(user, item.subject(), "Hi " + user.getFullName() + ",\n\n" + item.line());
+                return;
+            }
+
+            StringBuilder body = new StringBuilder("Hi ").append(user.getFullName())
+                    .append(",\n\nHere is what happened since our last mail:\n\n");
+            for (Item item : items) {
+                body.append("- ").append(item.line()).append('\n');
+            }
+            emailService.sendEmail(user, "You have " + items.size() + " new updates", body.toString());
+        } catch (RuntimeException e) {
+            log.error("Could not queue notification mail for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
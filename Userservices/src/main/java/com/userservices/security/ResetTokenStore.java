@@ -0,0 +1,133 @@
+package com.userservices.security;
+
+import com.persistence.Entity.PasswordResetToken;
+import com.persistence.Repository.PasswordResetTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Password-reset tokens, kept out of the users table. Only a SHA-256 digest of each token is
+ * stored: in a map for O(1) redemption, written through to password_reset_tokens so tokens
+ * survive a restart (and are found by other instances). A user has at most one live token;
+ * expired ones are purged on a schedule.
+ */
+@Slf4j
+@Component
+public class ResetTokenStore {
+
+    private record Entry(Long userId, LocalDateTime expiresAt) {
+    }
+
+    private final PasswordResetTokenRepository repository;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Entry> byHash = new ConcurrentHashMap<>();
+    private final Map<Long, String> hashByUser = new ConcurrentHashMap<>();
+
+    public ResetTokenStore(PasswordResetTokenRepository repository,
+                           @Value("${password-reset.ttl-minutes:15}") long ttlMinutes) {
+        this.repository = repository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (PasswordResetToken token : repository.findByExpiresAtAfter(LocalDateTime.now())) {
+            remember(token.getTokenHash(), new Entry(token.getUserId(), token.getExpiresAt()));
+        }
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    // Returns the raw token for the email link; it is never stored
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        String hash = hash(token);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+
+        // A new request replaces whatever link the user was sent before (upsert on uk_password_reset_tokens_user)
+        repository.replaceForUser(userId, hash, expiresAt, now);
+        String previous = hashByUser.get(userId);
+        if (previous != null) byHash.remove(previous);
+        remember(hash, new Entry(userId, expiresAt));
+        return token;
+    }
+
+    /**
+     * Consumes a token and returns its user id. The row delete is the single-use guard, so a
+     * token cannot be redeemed twice even across instances.
+     */
+    public Long redeem(String token) {
+        if (token == null || token.isBlank()) {
+            throw new NoSuchElementException("Invalid or expired token");
+        }
+        String hash = hash(token);
+        Entry entry = byHash.remove(hash);
+        if (entry == null) {
+            // Issued by another instance: one primary-key lookup
+            entry = repository.findById(hash)
+                    .map(t -> new Entry(t.getUserId(), t.getExpiresAt()))
+                    .orElseThrow(() -> new NoSuchElementException("Invalid or expired token"));
+        }
+        hashByUser.remove(entry.userId(), hash);
+
+        if (repository.deleteByTokenHash(hash) == 0) {
+            throw new NoSuchElementException("Invalid or expired token");
+        }
+        if (entry.expiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Token expired");
+        }
+        return entry.userId();
+    }
+
+    @Scheduled(fixedDelayString = "${password-reset.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        byHash.entrySet().removeIf(e -> {
+            if (!e.getValue().expiresAt().isBefore(now)) return false;
+            hashByUser.remove(e.getValue().userId(), e.getKey());
+            return true;
+        });
+        try {
+            int purged = repository.deleteExpired(now);
+            if (purged > 0) log.debug("Purged {} expired password reset tokens", purged);
+        } catch (RuntimeException e) {
+            log.warn("Could not purge expired password reset tokens: {}", e.getMessage());
+        }
+    }
+
+    private void remember(String hash, Entry entry) {
+        byHash.put(hash, entry);
+        hashByUser.put(entry.userId(), hash);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
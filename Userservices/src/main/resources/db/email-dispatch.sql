@@ -0,0 +1,3 @@
+-- Mails are now queued as PENDING and may have no course; ddl-auto cannot relax either constraint
+ALTER TABLE email_logs ALTER COLUMN course_id DROP NOT NULL;
+ALTER TABLE email_logs DROP CONSTRAINT IF EXISTS email_logs_status_check;
@@ -0,0 +1,73 @@
+package com.userservices.Controller;
+
+import com.persistence.Entity.User;
+import com.persistence.Repository.RevokedTokenRepository;
+import com.userservices.Exception.GlobalExceptionHandler;
+import com.userservices.Service.UserServices;
+import com.userservices.config.SecurityConfig;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Through the real filter chain: the URL rules in SecurityConfig run before @PreAuthorize
+@WebMvcTest(UserController.class)
+@ContextConfiguration(classes = {UserController.class, SecurityConfig.class, GlobalExceptionHandler.class})
+class NotificationPreferenceSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserServices userServices;
+
+    @MockBean
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.secret}")
+    private String secret;
+
+    @Test
+    void instructorsSetTheirOwnPreference() throws Exception {
+        mockMvc.perform(put("/api/users/7/notification-preference")
+                        .param("mode", "DIGEST")
+                        .header("Authorization", "Bearer " + token(7L, "INSTRUCTOR")))
+                .andExpect(status().isOk());
+
+        verify(userServices).updateNotificationMode(7L, User.NotificationMode.DIGEST);
+    }
+
+    @Test
+    void instructorsStillCannotManageUsers() throws Exception {
+        mockMvc.perform(get("/api/users/8")
+                        .header("Authorization", "Bearer " + token(7L, "INSTRUCTOR")))
+                .andExpect(status().isForbidden());
+    }
+
+    private String token(Long userId, String role) {
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject("user" + userId + "@example.com")
+                .claim("userId", userId)
+                .claim("role", role)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,77 @@
+package com.userservices.Service;
+
+import com.persistence.Entity.User;
+import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.UserRepo;
+import com.userservices.FeignClient.CourseClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NotificationPreferenceAccessTest {
+
+    private final UserRepo userRepo = mock(UserRepo.class);
+    private final UserServices userServices = new UserServices(mock(CourseRepository.class), userRepo,
+            mock(CourseClient.class), mock(EmailService.class), mock(PasswordEncoder.class));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void usersChangeTheirOwnPreference() {
+        authenticate(5L, "ada@example.com", "STUDENT");
+        when(userRepo.updateNotificationMode(5L, User.NotificationMode.IMMEDIATE)).thenReturn(1);
+
+        userServices.updateNotificationMode(5L, User.NotificationMode.IMMEDIATE);
+
+        verify(userRepo).updateNotificationMode(5L, User.NotificationMode.IMMEDIATE);
+    }
+
+    @Test
+    void otherUsersPreferenceIsForbidden() {
+        authenticate(5L, "ada@example.com", "INSTRUCTOR");
+
+        assertThatThrownBy(() -> userServices.updateNotificationMode(6L, User.NotificationMode.IMMEDIATE))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(userRepo, never()).updateNotificationMode(any(), any());
+    }
+
+    @Test
+    void tokensWithoutUserIdAreResolvedByEmail() {
+        User ada = new User();
+        ada.setId(5L);
+        when(userRepo.findByEmail("ada@example.com")).thenReturn(Optional.of(ada));
+        authenticate(null, "ada@example.com", "STUDENT");
+
+        assertThatThrownBy(() -> userServices.updateNotificationMode(6L, User.NotificationMode.DIGEST))
+                .isInstanceOf(AccessDeniedException.class);
+    }
+
+    @Test
+    void adminsChangeAnyonesPreference() {
+        authenticate(1L, "admin@example.com", "ADMIN");
+        when(userRepo.updateNotificationMode(6L, User.NotificationMode.DIGEST)).thenReturn(1);
+
+        userServices.updateNotificationMode(6L, User.NotificationMode.DIGEST);
+
+        verify(userRepo).updateNotificationMode(6L, User.NotificationMode.DIGEST);
+    }
+
+    private static void authenticate(Long userId, String email, String role) {
+        Jwt.Builder jwt = Jwt.withTokenValue("token").header("alg", "HS256").subject(email).claim("role", role);
+        if (userId != null) jwt.claim("userId", userId);
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt.build()));
+    }
+}
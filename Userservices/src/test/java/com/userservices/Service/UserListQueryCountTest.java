@@ -0,0 +1,132 @@
+package com.userservices.Service;
+
+import com.persistence.Entity.Course;
+import com.persistence.Entity.User;
+import com.persistence.Repository.CourseRepository;
+import com.persistence.Repository.UserRepo;
+import com.userservices.FeignClient.CourseClient;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The user list endpoints must issue a fixed number of statements however many users they
+ * return: coursesTaught is fetched with the users, never per user. Each case is measured
+ * with a few instructors and again with ten times as many.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(UserServices.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserListQueryCountTest {
+
+    private static final int FEW = 3;
+    private static final int MANY = 30;
+    private static final int COURSES_EACH = 2;
+
+    @MockBean
+    private CourseClient courseClient;
+
+    @MockBean
+    private EmailService emailService;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserServices userServices;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private UserRepo userRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String tag;
+
+    @BeforeEach
+    void newTag() {
+        tag = "qc" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    @Test
+    void getAllIsOneQuery() {
+        seed(FEW);
+        long few = count(() -> assertThat(userServices.getAll()).hasSizeGreaterThanOrEqualTo(FEW));
+        seed(MANY - FEW);
+        long many = count(() -> assertThat(userServices.getAll()).hasSizeGreaterThanOrEqualTo(MANY));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void searchUsersIsOneQuery() {
+        seed(FEW);
+        long few = count(() -> assertThat(userServices.searchUsers(tag, null, null))
+                .hasSize(FEW)
+                .allSatisfy(user -> assertThat(user.getCoursesTaught()).hasSize(COURSES_EACH)));
+        seed(MANY - FEW);
+        long many = count(() -> assertThat(userServices.searchUsers(tag, null, null))
+                .hasSize(MANY)
+                .allSatisfy(user -> assertThat(user.getCoursesTaught()).hasSize(COURSES_EACH)));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void searchByCourseTitleIsOneQuery() {
+        seed(FEW);
+        long few = count(() -> assertThat(userServices.searchByCourseTitle(tag)).hasSize(FEW));
+        seed(MANY - FEW);
+        long many = count(() -> assertThat(userServices.searchByCourseTitle(tag)).hasSize(MANY));
+
+        assertThat(few).isEqualTo(1);
+        assertThat(many).isEqualTo(few);
+    }
+
+    private long count(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seed(int instructors) {
+        for (int i = 0; i < instructors; i++) {
+            User instructor = new User();
+            instructor.setFullName(tag + " Instructor " + i);
+            instructor.setEmail(UUID.randomUUID() + "@test.local");
+            instructor.setPasswordHash("not-a-real-hash");
+            instructor.setRole(User.Role.INSTRUCTOR);
+            instructor = userRepo.save(instructor);
+            for (int c = 0; c < COURSES_EACH; c++) {
+                courseRepository.save(Course.builder()
+                        .title(tag + " Course " + c)
+                        .description("Query count fixture")
+                        .category("fixtures")
+                        .instructor(instructor)
+                        .build());
+            }
+        }
+    }
+}
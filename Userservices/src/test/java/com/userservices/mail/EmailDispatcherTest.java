@@ -0,0 +1,239 @@
+package com.userservices.mail;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.persistence.Entity.EmailLog;
+import com.persistence.Repository.EmailLogRepository;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailDispatcherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_SECONDS = 30;
+    private static final double PER_DOMAIN_PER_SECOND = 2; // sends at 0, 0.5 and 1s, defers the rest
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private final EmailLogRepository repository = mock(EmailLogRepository.class);
+    private EmailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) dispatcher.stop();
+    }
+
+    @Test
+    void sendsDueMailOverSmtpAndMarksItSent() {
+        dispatcher = dispatcher(Set.of());
+        due(new Mail(1L, "ada@example.com", 0), new Mail(2L, "alan@example.org", 0));
+
+        dispatcher.poll();
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 2)).isTrue();
+        assertThat(Arrays.stream(greenMail.getReceivedMessages()).map(this::recipient))
+                .containsExactlyInAnyOrder("ada@example.com", "alan@example.org");
+        assertThat(sentIds(2)).containsExactlyInAnyOrder(1L, 2L);
+        verify(repository, never()).markAttemptFailed(anyLong(), any(), anyInt(), any(), any());
+        verify(repository, never()).defer(any(), any());
+    }
+
+    @Test
+    void rejectedRecipientIsRetriedWithBackoffWhileTheRestAreSent() {
+        dispatcher = dispatcher(Set.of("bounce@example.com"));
+        due(new Mail(1L, "ada@example.com", 0), new Mail(2L, "bounce@example.com", 0));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.poll();
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, timeout(5_000)).markAttemptFailed(eq(2L), eq(EmailLog.Status.PENDING), eq(1),
+                retryAt.capture(), contains("Recipient address rejected"));
+        // First retry after the initial backoff plus up to 20% jitter
+        assertThat(retryAt.getValue())
+                .isAfterOrEqualTo(before.plusSeconds(INITIAL_BACKOFF_SECONDS))
+                .isBefore(LocalDateTime.now().plusSeconds(INITIAL_BACKOFF_SECONDS * 6 / 5 + 1));
+        assertThat(sentIds(1)).containsExactly(1L);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    @Test
+    void backoffDoublesWithEachAttempt() {
+        dispatcher = dispatcher(Set.of("bounce@example.com"));
+        due(new Mail(2L, "bounce@example.com", 1));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.poll();
+
+        ArgumentCaptor<LocalDateTime> retryAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository, timeout(5_000)).markAttemptFailed(eq(2L), eq(EmailLog.Status.PENDING), eq(2),
+                retryAt.capture(), any());
+        assertThat(retryAt.getValue()).isAfterOrEqualTo(before.plusSeconds(2 * INITIAL_BACKOFF_SECONDS));
+    }
+
+    @Test
+    void marksFailedAfterMaxAttempts() {
+        dispatcher = dispatcher(Set.of("bounce@example.com"));
+        due(new Mail(2L, "bounce@example.com", MAX_ATTEMPTS - 1));
+
+        dispatcher.poll();
+
+        verify(repository, timeout(5_000)).markAttemptFailed(eq(2L), eq(EmailLog.Status.FAILED), eq(MAX_ATTEMPTS),
+                isNull(), contains("Recipient address rejected"));
+        verify(repository, never()).markSent(any(), any(), any());
+    }
+
+    @Test
+    void unreachableRelayBacksOffEveryMail() {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(greenMail.getSmtp().getPort());
+        greenMail.stop();
+        dispatcher = new EmailDispatcher(sender, repository, mock(DataSource.class), 1, 100, MAX_ATTEMPTS,
+                300, INITIAL_BACKOFF_SECONDS, 3600, PER_DOMAIN_PER_SECOND);
+        due(new Mail(1L, "ada@example.com", 0), new Mail(2L, "grace@example.com", 0));
+
+        dispatcher.poll();
+
+        verify(repository, timeout(5_000)).markAttemptFailed(eq(1L), eq(EmailLog.Status.PENDING), eq(1), notNull(), any());
+        verify(repository, timeout(5_000)).markAttemptFailed(eq(2L), eq(EmailLog.Status.PENDING), eq(1), notNull(), any());
+        verify(repository, never()).markSent(any(), any(), any());
+    }
+
+    @Test
+    void defersMailBeyondTheDomainRate() {
+        dispatcher = dispatcher(Set.of());
+        due(new Mail(1L, "a@busy.com", 0), new Mail(2L, "b@busy.com", 0), new Mail(3L, "c@busy.com", 0),
+                new Mail(4L, "d@busy.com", 0), new Mail(5L, "e@busy.com", 0), new Mail(6L, "f@quiet.com", 0));
+        LocalDateTime before = LocalDateTime.now();
+
+        dispatcher.poll();
+
+        // busy.com gets the slots within the next second; quiet.com is not held back by it
+        ArgumentCaptor<Collection<Long>> deferred = idsCaptor();
+        ArgumentCaptor<LocalDateTime> at = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repository).defer(deferred.capture(), at.capture());
+        assertThat(deferred.getValue()).containsExactly(4L, 5L);
+        assertThat(at.getValue()).isAfter(before.plusSeconds(1)).isBefore(LocalDateTime.now().plusSeconds(2));
+
+        assertThat(greenMail.waitForIncomingEmail(5_000, 4)).isTrue();
+        assertThat(sentIds(2)).containsExactlyInAnyOrder(1L, 2L, 3L, 6L);
+
+        // Still inside the window: the next poll defers busy.com again without sending
+        reset(repository);
+        due(new Mail(4L, "d@busy.com", 0));
+        dispatcher.poll();
+        verify(repository).defer(eq(List.of(4L)), any());
+        verify(repository, after(200).never()).markSent(any(), any(), any());
+    }
+
+    private EmailDispatcher dispatcher(Set<String> rejected) {
+        RejectingMailSender sender = new RejectingMailSender(rejected);
+        sender.setHost("localhost");
+        sender.setPort(greenMail.getSmtp().getPort());
+        return new EmailDispatcher(sender, repository, mock(DataSource.class), 1, 100, MAX_ATTEMPTS,
+                300, INITIAL_BACKOFF_SECONDS, 3600, PER_DOMAIN_PER_SECOND);
+    }
+
+    private void due(Mail... mails) {
+        when(repository.claimDue(any(), any(), anyInt())).thenReturn(List.of(mails));
+    }
+
+    // Ids passed to markSent across the given number of batches
+    private List<Long> sentIds(int batches) {
+        ArgumentCaptor<Collection<Long>> ids = idsCaptor();
+        verify(repository, timeout(5_000).times(batches)).markSent(ids.capture(), eq(EmailLog.Status.SENT), notNull());
+        return ids.getAllValues().stream().flatMap(Collection::stream).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<Collection<Long>> idsCaptor() {
+        return ArgumentCaptor.forClass(Collection.class);
+    }
+
+    private String recipient(MimeMessage message) {
+        try {
+            return message.getAllRecipients()[0].toString();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Mail(Long id, String recipientEmail, int attempts) implements EmailLogRepository.DueEmail {
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getRecipientEmail() {
+            return recipientEmail;
+        }
+
+        @Override
+        public String getSubject() {
+            return "Mail " + id;
+        }
+
+        @Override
+        public String getBody() {
+            return "Body " + id;
+        }
+
+        @Override
+        public Integer getAttempts() {
+            return attempts;
+        }
+    }
+
+    // GreenMail accepts every RCPT, so a relay refusing some recipients is reproduced here:
+    // they are reported the way JavaMailSenderImpl reports a refused RCPT, the rest really go out
+    private static final class RejectingMailSender extends JavaMailSenderImpl {
+
+        private final Set<String> rejected;
+
+        RejectingMailSender(Set<String> rejected) {
+            this.rejected = rejected;
+        }
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            List<MimeMessage> accepted = new ArrayList<>();
+            List<Object> acceptedOriginals = new ArrayList<>();
+            Map<Object, Exception> failed = new LinkedHashMap<>();
+            for (int i = 0; i < mimeMessages.length; i++) {
+                String to = ((SimpleMailMessage) originalMessages[i]).getTo()[0];
+                if (rejected.contains(to)) {
+                    failed.put(originalMessages[i],
+                            new SendFailedException("550 5.1.1 <" + to + ">: Recipient address rejected"));
+                } else {
+                    accepted.add(mimeMessages[i]);
+                    acceptedOriginals.add(originalMessages[i]);
+                }
+            }
+            if (!accepted.isEmpty()) {
+                super.doSend(accepted.toArray(new MimeMessage[0]), acceptedOriginals.toArray());
+            }
+            if (!failed.isEmpty()) {
+                throw new MailSendException(failed);
+            }
+        }
+    }
+}
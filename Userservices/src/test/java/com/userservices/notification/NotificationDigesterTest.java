@@ -0,0 +1,112 @@
+package com.userservices.notification;
+
+import com.persistence.Entity.User;
+import com.persistence.Repository.UserRepo;
+import com.userservices.Service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationDigesterTest {
+
+    private static final long USER_ID = 7L;
+
+    private final UserRepo userRepo = mock(UserRepo.class);
+    private final EmailService emailService = mock(EmailService.class);
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        user.setId(USER_ID);
+        user.setFullName("Ada Lovelace");
+        when(userRepo.findById(USER_ID)).thenReturn(Optional.of(user));
+        when(userRepo.findNotificationModeById(USER_ID)).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void immediateModeMailsEachEventRightAway() {
+        when(userRepo.findNotificationModeById(USER_ID)).thenReturn(Optional.of(User.NotificationMode.IMMEDIATE));
+        NotificationDigester digester = digester(15, 50);
+
+        digester.notify(USER_ID, "Enrolled", "You enrolled in Java");
+        digester.notify(USER_ID, "Enrolled", "You enrolled in Go");
+
+        verify(emailService).sendEmail(same(user), eq("Enrolled"), contains("You enrolled in Java"));
+        verify(emailService).sendEmail(same(user), eq("Enrolled"), contains("You enrolled in Go"));
+    }
+
+    @Test
+    void digestWaitsForTheWindow() {
+        NotificationDigester digester = digester(15, 50);
+
+        digester.notify(USER_ID, "Enrolled", "You enrolled in Java");
+        digester.notify(USER_ID, "Enrolled", "You enrolled in Go");
+        digester.flushDue();
+
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void closedWindowSendsOneDigest() {
+        NotificationDigester digester = digester(0, 50);
+
+        digester.notify(USER_ID, "Enrolled", "You enrolled in Java");
+        digester.notify(USER_ID, "Enrolled", "You enrolled in Go");
+        digester.flushDue();
+        digester.flushDue();
+
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(emailService).sendEmail(same(user), eq("You have 2 new updates"), body.capture());
+        assertThat(body.getValue()).startsWith("Hi Ada Lovelace,")
+                .contains("- You enrolled in Java\n- You enrolled in Go\n");
+    }
+
+    @Test
+    void maxItemsFlushesBeforeTheWindow() {
+        NotificationDigester digester = digester(15, 3);
+
+        for (int i = 1; i <= 4; i++) {
+            digester.notify(USER_ID, "Enrolled", "Event " + i);
+        }
+
+        verify(emailService).sendEmail(same(user), eq("You have 3 new updates"), anyString());
+        // The fourth event opened a new digest, sent at shutdown as a plain mail
+        digester.flushAll();
+        verify(emailService).sendEmail(same(user), eq("Enrolled"), contains("Event 4"));
+        verifyNoMoreInteractions(emailService);
+    }
+
+    @Test
+    void openDigestIsKeptWhenTheUserSwitchesToImmediate() {
+        NotificationDigester digester = digester(0, 50);
+
+        digester.notify(USER_ID, "Enrolled", "Event 1");
+        when(userRepo.findNotificationModeById(USER_ID)).thenReturn(Optional.of(User.NotificationMode.IMMEDIATE));
+        digester.notify(USER_ID, "Enrolled", "Event 2");
+
+        verifyNoInteractions(emailService);
+        digester.flushDue();
+        verify(emailService).sendEmail(same(user), eq("You have 2 new updates"), anyString());
+    }
+
+    @Test
+    void unknownUsersAreDropped() {
+        NotificationDigester digester = digester(0, 50);
+
+        digester.notify(404L, "Enrolled", "Event");
+        digester.notify(null, "Enrolled", "Event");
+        digester.flushDue();
+
+        verifyNoInteractions(emailService);
+    }
+
+    private NotificationDigester digester(long windowMinutes, int maxItems) {
+        return new NotificationDigester(userRepo, emailService, User.NotificationMode.DIGEST, windowMinutes, maxItems);
+    }
+}
@@ -0,0 +1,101 @@
+package com.persistence.benchmark;
+
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.persistence.security.CachingJwtDecoder;
+import com.persistence.security.RevocationList;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of authenticating one request: the plain HS256 NimbusJwtDecoder the services used
+ * before, against CachingJwtDecoder when the token is already cached (the common case, a
+ * user's token on its second and later requests) and when it is not (first sight of a token).
+ * tokenCount spreads the requests over that many distinct users' tokens; the revocation list
+ * holds revokedCount other tokens, so every check goes through the bloom filter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecoderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+    @Param({"1", "10000"})
+    public int tokenCount;
+
+    @Param({"1000"})
+    public int revokedCount;
+
+    private String[] tokens;
+    private int next;
+    private JwtDecoder uncached;
+    private CachingJwtDecoder cached;
+    private CachingJwtDecoder missing;
+
+    @Setup
+    public void setUp() {
+        SecretKey key = new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(2));
+        tokens = new String[tokenCount];
+        for (int i = 0; i < tokenCount; i++) {
+            JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .id(UUID.randomUUID().toString())
+                    .subject("user" + i + "@example.com")
+                    .claim("userId", i)
+                    .claim("role", "STUDENT")
+                    .issuedAt(Instant.now())
+                    .expiresAt(expiresAt)
+                    .build();
+            tokens[i] = encoder.encode(JwtEncoderParameters.from(
+                    JwsHeader.with(MacAlgorithm.HS256).build(), claims)).getTokenValue();
+        }
+
+        RevocationList revocationList = new RevocationList(revokedCount * 10);
+        for (int i = 0; i < revokedCount; i++) {
+            revocationList.revoke(UUID.randomUUID().toString(), expiresAt.toEpochMilli());
+        }
+
+        uncached = NimbusJwtDecoder.withSecretKey(key).build();
+        cached = new CachingJwtDecoder(uncached, revocationList, Math.max(tokenCount, 1), Duration.ofMinutes(30));
+        missing = new CachingJwtDecoder(uncached, revocationList, 1, Duration.ofMinutes(30));
+        for (String token : tokens) {
+            cached.decode(token);
+        }
+    }
+
+    private String nextToken() {
+        String token = tokens[next];
+        next = next + 1 == tokens.length ? 0 : next + 1;
+        return token;
+    }
+
+    @Benchmark
+    public Jwt uncached() {
+        return uncached.decode(nextToken());
+    }
+
+    @Benchmark
+    public Jwt cachedHit() {
+        return cached.decode(nextToken());
+    }
+
+    // Includes clearing a one-entry cache, which is negligible next to the verification
+    @Benchmark
+    public Jwt cachedMiss() {
+        missing.invalidateAll();
+        return missing.decode(nextToken());
+    }
+}
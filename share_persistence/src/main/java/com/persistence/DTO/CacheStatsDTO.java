@@ -0,0 +1,16 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String tier;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long size;
+}
@@ -0,0 +1,30 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HashingStatsDTO {
+    private int strength;        // BCrypt cost new hashes are written with
+    private long targetMs;       // latency budget the cost was calibrated against
+    private int activeThreads;
+    private int queued;
+    private long rejected;       // requests turned away with 429
+    private long rehashed;       // stored hashes upgraded on login
+    private OperationStatsDTO encode;
+    private OperationStatsDTO matches;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OperationStatsDTO {
+        private long count;
+        private double avgQueueMs;
+        private double avgHashMs;
+        private double maxHashMs;
+    }
+}
@@ -0,0 +1,27 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardDTO {
+    private String scope; // QUIZ or COURSE
+    private Long scopeId;
+    private int participants;
+    private List<EntryDTO> entries;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class EntryDTO {
+        private int rank;
+        private Long studentId;
+        private long score;
+    }
+}
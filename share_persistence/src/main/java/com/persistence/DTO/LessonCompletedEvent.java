@@ -12,4 +12,7 @@ public class LessonCompletedEvent {
     private Long studentId;
     private Long enrollmentId;
     private String timestamp;
+    private Boolean courseCompleted; // true when this lesson was the enrollment's last one
+    private Long courseId;
+    private Integer lessonsRemaining;
 }
@@ -0,0 +1,17 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PublisherStatsDTO {
+    private long acknowledged;
+    private long failed;
+    private long rejected;
+    private int inFlight;
+    private double avgLatencyMs;
+    private double maxLatencyMs;
+}
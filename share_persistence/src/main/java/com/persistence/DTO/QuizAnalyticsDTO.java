@@ -0,0 +1,32 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizAnalyticsDTO {
+    private Long quizId;
+    private long submissions;
+    private double meanPercentage;
+    private int medianPercentage;
+    private int p90Percentage;
+    private List<Long> scoreHistogram; // submissions per 10-point band: 0-9, 10-19, ... 90-100
+    private List<QuestionStatsDTO> questions;
+
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class QuestionStatsDTO {
+        private Long questionId;
+        private long attempts;
+        private long correct;
+        private Double difficulty;     // share of submissions answering correctly
+        private Double discrimination; // point-biserial correlation with the quiz score
+    }
+}
@@ -0,0 +1,17 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizImportProgressDTO {
+    private String importId;
+    private Long quizId;
+    private String status; // RUNNING, COMPLETED, FAILED
+    private long questionsImported;
+    private int batchesFlushed;
+    private String error;
+}
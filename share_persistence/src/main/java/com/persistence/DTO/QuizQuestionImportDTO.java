@@ -0,0 +1,16 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+// One element of a question-bank upload; unlike QuizQuestionDTO it carries the answer
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizQuestionImportDTO {
+    private String questionText;
+    private String optionsJson;
+    private String correctAnswer;
+    private Integer marks;
+}
@@ -0,0 +1,24 @@
+package com.persistence.DTO;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizSubmissionDTO {
+    private Long id;
+    private Long quizId;
+    private Long studentId;
+    private Integer score;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MMMM dd, yyyy hh:mm a")
+    private LocalDateTime submittedAt;
+
+    private Map<Long, String> answers;
+}
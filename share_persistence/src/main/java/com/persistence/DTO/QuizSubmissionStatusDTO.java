@@ -0,0 +1,15 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuizSubmissionStatusDTO {
+    private String token;
+    private String status; // PENDING, GRADED, FAILED
+    private SubmitResponseDTO result;
+    private String error;
+}
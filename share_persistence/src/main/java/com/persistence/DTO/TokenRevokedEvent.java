@@ -0,0 +1,14 @@
+package com.persistence.DTO;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevokedEvent {
+    private String tokenId;
+    private Long userId;
+    private Long expiresAtMillis; // epoch millis of the token's exp
+}
@@ -8,7 +8,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "certificates")
+@Table(name = "certificates", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_certificates_enrollment", columnNames = "enrollment_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
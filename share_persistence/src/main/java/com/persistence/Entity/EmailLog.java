@@ -11,7 +11,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "email_logs")
+@Table(name = "email_logs", indexes = @Index(name = "idx_email_logs_status_next_attempt", columnList = "status, next_attempt_at"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -29,8 +29,9 @@ public class EmailLog {
     @JsonIgnore
     private User user;
 
-    @ManyToOne(fetch = FetchType.LAZY, optional = false)
-    @JoinColumn(name = "course_id", nullable = false)
+    // Null for mails not tied to a course (e.g. password reset)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
     @JsonIgnore
     private Course course;
 
@@ -55,6 +56,7 @@ public class EmailLog {
     private Status status;
 
 
+    // Queue time while PENDING, delivery time once SENT
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MMMM dd, yyyy hh:mm a")
     @Column(name = "sent_at", nullable = false)
     private LocalDateTime sentAt;
@@ -62,6 +64,14 @@ public class EmailLog {
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
 
+    // Delivery attempts so far; a PENDING mail is retried from nextAttemptAt
+    @Column
+    private Integer attempts;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MMMM dd, yyyy hh:mm a")
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
 
     @PrePersist
     protected void onSend() {
@@ -71,6 +81,6 @@ public class EmailLog {
     }
 
     public enum Status {
-        SENT, FAILED
+        PENDING, SENT, FAILED
     }
 }
@@ -47,6 +47,10 @@ public class Enrollment {
     @Column
     private Boolean completed;
 
+    // Completed lessons, maintained incrementally on each lesson completion (null until first counted)
+    @Column(name = "completed_lessons")
+    private Integer completedLessons;
+
     @Column(name = "completed_at")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "MMMM dd, yyyy hh:mm a")
     private LocalDateTime completedAt;
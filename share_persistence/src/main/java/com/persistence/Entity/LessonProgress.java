@@ -8,7 +8,9 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "lesson_progress")
+@Table(name = "lesson_progress", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_lesson_progress_enrollment_lesson", columnNames = {"enrollment_id", "lesson_id"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
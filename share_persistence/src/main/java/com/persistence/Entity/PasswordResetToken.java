@@ -0,0 +1,32 @@
+package com.persistence.Entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Outstanding password-reset tokens; only a SHA-256 digest of the token is stored, one per user
+@Entity
+@Table(name = "password_reset_tokens",
+        uniqueConstraints = @UniqueConstraint(name = "uk_password_reset_tokens_user", columnNames = "user_id"),
+        indexes = @Index(name = "idx_password_reset_tokens_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PasswordResetToken {
+
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
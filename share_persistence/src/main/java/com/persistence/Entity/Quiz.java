@@ -11,7 +11,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "quizzes")
+@Table(name = "quizzes", uniqueConstraints =
+        @UniqueConstraint(name = "uk_quizzes_prepared_for_course", columnNames = {"prepared_for_student_id", "course_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -57,6 +58,21 @@ public class Quiz {
     @OneToMany(mappedBy = "quiz", cascade = CascadeType.ALL)
     private List<QuizSubmission> submissions;
 
+    // Generated quizzes point at questions from the course bank instead of copying them
+    @ManyToMany
+    @JoinTable(name = "quiz_question_refs",
+            joinColumns = @JoinColumn(name = "quiz_id"),
+            inverseJoinColumns = @JoinColumn(name = "question_id"))
+    @OrderColumn(name = "position")
+    @JsonIgnore
+    private List<QuizQuestion> referencedQuestions;
+
+    // Set on a student's final quiz (generated ahead of time or on first request); null otherwise
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "prepared_for_student_id")
+    @JsonIgnore
+    private User preparedFor;
+
 
     @PrePersist
     protected void onCreate() {
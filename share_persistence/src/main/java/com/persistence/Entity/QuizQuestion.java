@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
 @Table(name = "quiz_questions")
@@ -15,8 +17,10 @@ import lombok.*;
 @Builder
 public class QuizQuestion {
 
+    // Pooled sequence (not IDENTITY) so Hibernate can JDBC-batch inserts; see db/quiz-question-sequence.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_question_seq")
+    @SequenceGenerator(name = "quiz_question_seq", sequenceName = "quiz_questions_seq", allocationSize = 50)
     private Long id;
 
 
@@ -34,8 +38,10 @@ public class QuizQuestion {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String questionText;
 
+    // Stored as JSONB (parsed once on write, validated by the database)
     @NotBlank(message = "Options cannot be blank")
-    @Column(nullable = false, columnDefinition = "TEXT")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false, columnDefinition = "jsonb")
     private String optionsJson;
 
 
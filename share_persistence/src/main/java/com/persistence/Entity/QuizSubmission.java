@@ -41,9 +41,16 @@ public class QuizSubmission {
     private Integer score;
 
 
-    @Column(name = "answers_json", columnDefinition = "TEXT", nullable = false)
+    // Legacy JSON form; QuizStorageMigrator moves it into answers and clears it
+    @Column(name = "answers_json", columnDefinition = "TEXT")
+    @JsonIgnore
     private String answersJson;
 
+    // AnswerCodec encoding of question id -> answer
+    @Column(name = "answers")
+    @JsonIgnore
+    private byte[] answers;
+
 
     @PrePersist
     protected void onSubmit() {
@@ -50,6 +50,11 @@ public class User {
     @NotNull(message = "User role is required")
     private Role role;
 
+    // Event notifications: one mail per event, or collected into a digest; null = service default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_mode", length = 20)
+    private NotificationMode notificationMode;
+
     @Column(name = "created_at", updatable = false,nullable = false)
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern ="MMMM dd, yyyy hh:mm a")
     private LocalDateTime createdAt;
@@ -67,11 +72,6 @@ public class User {
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Enrollment> enrollments;
-    @Column(name = "reset_token")
-    private String resetToken;
-
-    @Column(name = "reset_token_expiry")
-    private LocalDateTime resetTokenExpiry;
 
 
     @PrePersist
@@ -92,4 +92,8 @@ public class User {
             return false;
         }
     }
+
+    public enum NotificationMode {
+        IMMEDIATE, DIGEST
+    }
 }
@@ -3,15 +3,34 @@ package com.persistence.Repository;
 import com.persistence.Entity.Certificate;
 import com.persistence.Entity.User;
 import com.persistence.Entity.Course;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 @Repository
 public interface CertificateRepository extends JpaRepository<Certificate, Long> {
+    // enrollment / student / course are EAGER: without the graph each row triggers its own selects
+    @EntityGraph(attributePaths = {"enrollment", "student", "course"})
     List<Certificate> findByStudent(User student);
+
+    @EntityGraph(attributePaths = {"enrollment", "student", "course"})
     List<Certificate> findByCourse(Course course);
+
+    @EntityGraph(attributePaths = {"enrollment", "student", "course"})
     List<Certificate> findByEnrollment_Id(Long enrollmentId);
+
+    // Returns the new id, or empty when the enrollment already has a certificate (uk_certificates_enrollment)
+    @Transactional
+    @Query(value = "INSERT INTO certificates (enrollment_id, student_id, course_id, created_at, completion_date) " +
+            "SELECT e.id, e.student_id, e.course_id, :now, :now FROM enrollments e WHERE e.id = :enrollmentId " +
+            "ON CONFLICT (enrollment_id) DO NOTHING " +
+            "RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("enrollmentId") Long enrollmentId, @Param("now") LocalDateTime now);
 }
 
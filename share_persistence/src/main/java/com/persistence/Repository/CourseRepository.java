@@ -2,8 +2,12 @@ package com.persistence.Repository;
 
 import com.persistence.Entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +15,10 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     Optional<Course> findById(Long id);
 
     void deleteById(Long id);
+
+    @Query("SELECT c FROM Course c JOIN FETCH c.instructor WHERE c.id = :id")
+    Optional<Course> findWithInstructorById(@Param("id") Long id);
+
+    @Query("SELECT c FROM Course c JOIN FETCH c.instructor WHERE c.id IN :ids")
+    List<Course> findWithInstructorByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -4,12 +4,63 @@ package com.persistence.Repository;
 
 import com.persistence.Entity.EmailLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface EmailLogRepository extends JpaRepository<EmailLog, Long> {
     List<EmailLog> findByUserId(Long userId);
     List<EmailLog> findByCourseId(Long courseId);
+
+    interface DueEmail {
+        Long getId();
+        String getRecipientEmail();
+        String getSubject();
+        String getBody();
+        Integer getAttempts();
+    }
+
+    // Claims due PENDING mails by pushing nextAttemptAt to the lease end; a crashed sender's mails
+    // become due again when the lease runs out. Not @Modifying: RETURNING is read as a result set
+    @Transactional
+    @Query(value = "UPDATE email_logs SET next_attempt_at = :leaseUntil WHERE id IN (" +
+            "SELECT id FROM email_logs WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id AS \"id\", recipient_email AS \"recipientEmail\", subject AS \"subject\", " +
+            "body AS \"body\", COALESCE(attempts, 0) AS \"attempts\"",
+            nativeQuery = true)
+    List<DueEmail> claimDue(@Param("now") LocalDateTime now,
+                            @Param("leaseUntil") LocalDateTime leaseUntil,
+                            @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailLog e SET e.status = :status, e.sentAt = :sentAt, e.errorMessage = NULL, " +
+            "e.nextAttemptAt = NULL, e.attempts = COALESCE(e.attempts, 0) + 1 WHERE e.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids,
+                 @Param("status") EmailLog.Status status,
+                 @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailLog e SET e.status = :status, e.attempts = :attempts, e.nextAttemptAt = :nextAttemptAt, " +
+            "e.errorMessage = :error WHERE e.id = :id")
+    int markAttemptFailed(@Param("id") Long id,
+                          @Param("status") EmailLog.Status status,
+                          @Param("attempts") int attempts,
+                          @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                          @Param("error") String error);
+
+    // Throttled or not picked up: back in the queue without counting an attempt
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailLog e SET e.nextAttemptAt = :at WHERE e.id IN :ids")
+    int defer(@Param("ids") Collection<Long> ids, @Param("at") LocalDateTime at);
 }
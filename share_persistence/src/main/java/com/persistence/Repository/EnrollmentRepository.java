@@ -3,15 +3,59 @@ package com.persistence.Repository;
 import com.persistence.Entity.Enrollment;
 import com.persistence.Entity.Course;
 import com.persistence.Entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     Optional<Enrollment> findByStudentAndCourse(User student, Course course);
+
+    @EntityGraph(attributePaths = {"student", "course"})
     List<Enrollment> findByStudent(User student);
+
+    @EntityGraph(attributePaths = {"student", "course"})
     List<Enrollment> findByCourse(Course course);
+
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.student JOIN FETCH e.course WHERE e.id = :id")
+    Optional<Enrollment> findWithStudentAndCourseById(@Param("id") Long id);
+
+    interface CompletionTally {
+        Long getStudentId();
+        Boolean getCourseCompleted();
+        Long getCourseId();
+        Integer getLessonsRemaining();
+    }
+
+    interface LessonTally {
+        Long getCompleted();
+        Long getTotal();
+    }
+
+    // Completed vs total lessons from the enrollment row (recounting only rows that predate the counter)
+    @Query(value = "SELECT COALESCE(e.completed_lessons, (SELECT count(*) FROM lesson_progress p " +
+            "WHERE p.enrollment_id = e.id AND p.is_complete)) AS \"completed\", " +
+            "(SELECT count(*) FROM lessons l WHERE l.course_id = e.course_id) AS \"total\" " +
+            "FROM enrollments e WHERE e.student_id = :studentId AND e.course_id = :courseId LIMIT 1",
+            nativeQuery = true)
+    Optional<LessonTally> findLessonTally(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    // Bumps the completed-lesson counter (recounting once for rows that predate it) and reports
+    // whether the course is now complete, replacing the two COUNTs per lesson click
+    @Transactional
+    @Query(value = "WITH total AS (SELECT count(*) AS n FROM lessons l " +
+            "JOIN enrollments en ON l.course_id = en.course_id WHERE en.id = :enrollmentId) " +
+            "UPDATE enrollments e SET completed_lessons = COALESCE(e.completed_lessons + 1, " +
+            "(SELECT count(*) FROM lesson_progress p WHERE p.enrollment_id = e.id AND p.is_complete)) " +
+            "FROM total WHERE e.id = :enrollmentId " +
+            "RETURNING e.student_id AS \"studentId\", e.completed_lessons >= total.n AS \"courseCompleted\", " +
+            "e.course_id AS \"courseId\", CAST(total.n - e.completed_lessons AS integer) AS \"lessonsRemaining\"",
+            nativeQuery = true)
+    CompletionTally incrementCompletedLessons(@Param("enrollmentId") Long enrollmentId);
 }
 
@@ -3,8 +3,12 @@ package com.persistence.Repository;
 import com.persistence.Entity.LessonProgress;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,5 +26,19 @@ public interface LessonProgressRepository extends JpaRepository<LessonProgress,
     boolean existsByEnrollmentStudentIdAndLessonIdAndIsCompleteTrue(Long studentId, Long lessonId);
     List<LessonProgress> findByEnrollment_Student_IdAndLesson_Course_IdAndIsCompleteTrue(Long studentId, Long courseId);
 
+    // Single round trip, idempotent under retries and concurrent clicks (uk_lesson_progress_enrollment_lesson).
+    // Returns the id only when the lesson flipped to complete; empty if it already was.
+    // Not @Modifying because RETURNING is read as a result set; hence the explicit read-write transaction
+    @Transactional
+    @Query(value = "INSERT INTO lesson_progress (enrollment_id, lesson_id, is_complete, completed_at) " +
+            "VALUES (:enrollmentId, :lessonId, true, :completedAt) " +
+            "ON CONFLICT (enrollment_id, lesson_id) " +
+            "DO UPDATE SET is_complete = true, completed_at = EXCLUDED.completed_at " +
+            "WHERE lesson_progress.is_complete = false " +
+            "RETURNING id", nativeQuery = true)
+    Optional<Long> upsertCompleted(@Param("enrollmentId") Long enrollmentId,
+                         @Param("lessonId") Long lessonId,
+                         @Param("completedAt") LocalDateTime completedAt);
+
 
 }
@@ -0,0 +1,39 @@
+package com.persistence.Repository;
+
+import com.persistence.Entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // SKIP LOCKED lets several relay instances drain the table without handing out the same rows.
+    // Every service shares the table, so a relay only claims its own rows. Rows that reached
+    // maxAttempts are parked for inspection instead of blocking the head of the queue.
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE origin = :origin
+              AND attempts < :maxAttempts
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("origin") String origin, @Param("limit") int limit,
+                                    @Param("maxAttempts") int maxAttempts);
+
+    // Rows written before the origin column existed
+    @Query(value = "SELECT DISTINCT event_type FROM outbox_events WHERE origin IS NULL", nativeQuery = true)
+    List<String> findUntaggedEventTypes();
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE outbox_events SET origin = :origin WHERE origin IS NULL AND event_type = :eventType",
+            nativeQuery = true)
+    int adoptUntagged(@Param("origin") String origin, @Param("eventType") String eventType);
+}
@@ -0,0 +1,41 @@
+package com.persistence.Repository;
+
+import com.persistence.Entity.PasswordResetToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, String> {
+
+    List<PasswordResetToken> findByExpiresAtAfter(LocalDateTime now);
+
+    // Returns 1 only for the caller that actually consumed the token
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // One statement, so two concurrent requests for the same user leave exactly one token behind
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO password_reset_tokens (token_hash, user_id, expires_at, created_at) " +
+            "VALUES (:tokenHash, :userId, :expiresAt, :createdAt) " +
+            "ON CONFLICT (user_id) DO UPDATE SET token_hash = EXCLUDED.token_hash, " +
+            "expires_at = EXCLUDED.expires_at, created_at = EXCLUDED.created_at", nativeQuery = true)
+    int replaceForUser(@Param("userId") Long userId,
+                       @Param("tokenHash") String tokenHash,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
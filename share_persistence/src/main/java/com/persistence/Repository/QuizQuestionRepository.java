@@ -4,6 +4,8 @@ package com.persistence.Repository;
 
 import com.persistence.Entity.QuizQuestion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,5 +15,13 @@ public interface QuizQuestionRepository extends JpaRepository<QuizQuestion, Long
     List<QuizQuestion> findByQuizId(Long quizId);
 
     List<QuizQuestion> findByCourseId(Long courseId);
+
+    @Query("SELECT q.id FROM QuizQuestion q WHERE q.course.id = :courseId")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId);
+
+    // Questions authored in the quiz plus those it references through quiz_question_refs
+    @Query("SELECT q FROM QuizQuestion q WHERE q.quiz.id = :quizId " +
+            "OR q.id IN (SELECT r.id FROM Quiz z JOIN z.referencedQuestions r WHERE z.id = :quizId)")
+    List<QuizQuestion> findAllForQuiz(@Param("quizId") Long quizId);
 }
 
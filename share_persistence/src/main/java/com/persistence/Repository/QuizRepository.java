@@ -3,8 +3,26 @@ package com.persistence.Repository;
 
 import com.persistence.Entity.Quiz;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
 
+    @Query("SELECT q.course.id FROM Quiz q WHERE q.id = :quizId")
+    Optional<Long> findCourseIdById(@Param("quizId") Long quizId);
+
+    // A student's final quiz with its questions, in one query
+    @Query("SELECT DISTINCT q FROM Quiz q LEFT JOIN FETCH q.referencedQuestions " +
+            "WHERE q.preparedFor.id = :studentId AND q.course.id = :courseId")
+    Optional<Quiz> findFinalQuiz(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    @Query("SELECT q.id FROM Quiz q WHERE q.course.id = :courseId")
+    List<Long> findIdsByCourseId(@Param("courseId") Long courseId);
+
+    boolean existsByPreparedFor_IdAndCourse_Id(Long studentId, Long courseId);
 }
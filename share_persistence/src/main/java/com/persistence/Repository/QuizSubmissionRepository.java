@@ -4,6 +4,7 @@ package com.persistence.Repository;
 
 import com.persistence.Entity.QuizSubmission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -11,5 +12,18 @@ import java.util.List;
 public interface QuizSubmissionRepository extends JpaRepository<QuizSubmission, Long> {
     List<QuizSubmission> findByStudentId(Long studentId);
     List<QuizSubmission> findByQuizId(Long quizId);
+
+    interface BestScore {
+        Long getQuizId();
+        Long getCourseId();
+        Long getStudentId();
+        Integer getBestScore();
+    }
+
+    // One row per (quiz, student): what the in-memory leaderboards are rebuilt from
+    @Query("SELECT s.quiz.id AS quizId, s.quiz.course.id AS courseId, s.student.id AS studentId, MAX(s.score) AS bestScore " +
+            "FROM QuizSubmission s WHERE s.score IS NOT NULL " +
+            "GROUP BY s.quiz.id, s.quiz.course.id, s.student.id")
+    List<BestScore> findBestScores();
 }
 
@@ -3,10 +3,13 @@ package com.persistence.Repository;
 
 import com.persistence.Entity.User;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,12 +18,41 @@ import java.util.Optional;
 public interface UserRepo extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Optional<User> findById(Long id);
-    Optional<User> findByResetToken(String resetToken);
 
     boolean existsByEmail(String email);
 
     boolean existsByFullName(@NotBlank String fullName);
-    @Query("SELECT DISTINCT u FROM User u JOIN u.coursesTaught c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    // Instructors of matching courses, with all their courses fetched in the same query
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.coursesTaught WHERE u.id IN " +
+            "(SELECT c.instructor.id FROM Course c WHERE LOWER(c.title) LIKE LOWER(CONCAT('%', :title, '%')))")
     List<User> findByCourseTitleContainingIgnoreCase(@Param("title") String title);
 
-}
\ No newline at end of file
+    @EntityGraph(attributePaths = "coursesTaught")
+    @Query("SELECT DISTINCT u FROM User u")
+    List<User> findAllWithCoursesTaught();
+
+    @EntityGraph(attributePaths = "coursesTaught")
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithCoursesTaughtById(@Param("id") Long id);
+
+    // Compare-and-set: a concurrent password change is never overwritten by a login rehash
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash WHERE u.id = :id AND u.passwordHash = :oldHash")
+    int replacePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.passwordHash = :newHash, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int updatePasswordHash(@Param("id") Long id, @Param("newHash") String newHash);
+
+    // Empty when the user is unknown or has no preference
+    @Query("SELECT u.notificationMode FROM User u WHERE u.id = :id")
+    Optional<User.NotificationMode> findNotificationModeById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.notificationMode = :mode, u.updatedAt = CURRENT_TIMESTAMP WHERE u.id = :id")
+    int updateNotificationMode(@Param("id") Long id, @Param("mode") User.NotificationMode mode);
+
+}
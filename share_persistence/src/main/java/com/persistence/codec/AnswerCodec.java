@@ -0,0 +1,89 @@
+package com.persistence.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compact binary form of a submission's answers (question id -> answer), stored in
+ * quiz_submissions.answers instead of JSON text.
+ * <pre>
+ * version:1  count:varint  { idDelta:varint  len+1:varint (0 = null)  utf8 bytes }*
+ * </pre>
+ * Ids are written ascending as deltas, so a typical entry costs 2-3 bytes plus the answer.
+ */
+public final class AnswerCodec {
+
+    private static final int VERSION = 1;
+
+    private AnswerCodec() {
+    }
+
+    public static byte[] encode(Map<Long, String> answers) {
+        TreeMap<Long, String> sorted = new TreeMap<>();
+        answers.forEach((id, answer) -> {
+            if (id != null && id >= 0) sorted.put(id, answer);
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + sorted.size() * 8);
+        out.write(VERSION);
+        writeVarint(out, sorted.size());
+        long previous = 0;
+        for (Map.Entry<Long, String> entry : sorted.entrySet()) {
+            writeVarint(out, entry.getKey() - previous);
+            previous = entry.getKey();
+            if (entry.getValue() == null) {
+                writeVarint(out, 0);
+            } else {
+                byte[] utf8 = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, utf8.length + 1L);
+                out.write(utf8, 0, utf8.length);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static Map<Long, String> decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) return Map.of();
+        if (bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unknown answer encoding version " + bytes[0]);
+        }
+
+        int[] pos = {1};
+        int count = (int) readVarint(bytes, pos);
+        Map<Long, String> answers = new LinkedHashMap<>(count * 2);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += readVarint(bytes, pos);
+            int length = (int) readVarint(bytes, pos);
+            if (length == 0) {
+                answers.put(id, null);
+            } else {
+                answers.put(id, new String(bytes, pos[0], length - 1, StandardCharsets.UTF_8));
+                pos[0] += length - 1;
+            }
+        }
+        return answers;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] bytes, int[] pos) {
+        long value = 0;
+        int shift = 0;
+        while (true) {
+            byte b = bytes[pos[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+        }
+    }
+}
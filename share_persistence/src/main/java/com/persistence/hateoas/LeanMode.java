@@ -0,0 +1,48 @@
+package com.persistence.hateoas;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * "Lean" responses skip per-item HATEOAS links. A client asks for it with
+ * {@code ?lean=true} or {@code Accept: application/json;profile=lean}.
+ * Pagination links ("next") are kept since they carry the continuation cursor.
+ */
+public final class LeanMode {
+
+    private static final String LEAN_ATTRIBUTE = LeanMode.class.getName() + ".LEAN";
+
+    private LeanMode() {
+    }
+
+    public static boolean isRequested() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) return false;
+
+        Object lean = attributes.getAttribute(LEAN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (lean == null) {
+            lean = resolve(servletAttributes.getRequest());
+            attributes.setAttribute(LEAN_ATTRIBUTE, lean, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Boolean) lean;
+    }
+
+    private static boolean resolve(HttpServletRequest request) {
+        if ("true".equalsIgnoreCase(request.getParameter("lean"))) return true;
+
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) return false;
+        try {
+            return MediaType.parseMediaTypes(accept).stream()
+                    .map(type -> type.getParameter("profile"))
+                    .anyMatch(profile -> profile != null && profile.replace("\"", "").equalsIgnoreCase("lean"));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+}
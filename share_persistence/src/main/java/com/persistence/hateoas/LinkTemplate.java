@@ -0,0 +1,107 @@
+package com.persistence.hateoas;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * URI template of a controller method, resolved once from its mapping annotations.
+ * Expanding it is plain string concatenation, unlike linkTo(methodOn(..)) which
+ * builds a CGLIB proxy and expands the URI reflectively on every call.
+ * Path variables are filled positionally; request params are not part of the template.
+ */
+public final class LinkTemplate {
+
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplate.class.getName() + ".BASE_URI";
+
+    // literal[0] {var} literal[1] {var} ... literal[n]
+    private final String[] literals;
+
+    private LinkTemplate(String[] literals) {
+        this.literals = literals;
+    }
+
+    // Overloaded handler names are rejected rather than guessed: pass the parameter types then
+    public static LinkTemplate of(Class<?> controller, String methodName) {
+        List<Method> handlers = Arrays.stream(controller.getMethods())
+                .filter(m -> m.getName().equals(methodName))
+                .filter(m -> AnnotatedElementUtils.hasAnnotation(m, RequestMapping.class))
+                .toList();
+
+        if (handlers.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "No handler method " + methodName + " on " + controller.getSimpleName());
+        }
+        if (handlers.size() > 1) {
+            throw new IllegalArgumentException("Handler method " + methodName + " is overloaded on "
+                    + controller.getSimpleName() + "; pass its parameter types");
+        }
+        return of(controller, handlers.get(0));
+    }
+
+    public static LinkTemplate of(Class<?> controller, String methodName, Class<?>... parameterTypes) {
+        try {
+            return of(controller, controller.getMethod(methodName, parameterTypes));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("No handler method " + methodName + Arrays.toString(parameterTypes)
+                    + " on " + controller.getSimpleName(), e);
+        }
+    }
+
+    private static LinkTemplate of(Class<?> controller, Method method) {
+        if (!AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)) {
+            throw new IllegalArgumentException(
+                    method.getName() + " on " + controller.getSimpleName() + " is not a request handler");
+        }
+        return compile(mappingPath(controller) + mappingPath(method));
+    }
+
+    static LinkTemplate compile(String template) {
+        List<String> literals = new ArrayList<>();
+        int pos = 0;
+        int open;
+        while ((open = template.indexOf('{', pos)) >= 0) {
+            literals.add(template.substring(pos, open));
+            pos = template.indexOf('}', open) + 1;
+        }
+        literals.add(template.substring(pos));
+        return new LinkTemplate(literals.toArray(new String[0]));
+    }
+
+    public Link link(String rel, Object... variables) {
+        StringBuilder href = new StringBuilder(currentBaseUri()).append(literals[0]);
+        for (int i = 1; i < literals.length; i++) {
+            Object value = i - 1 < variables.length ? variables[i - 1] : null;
+            if (value != null) href.append(value);
+            href.append(literals[i]);
+        }
+        return Link.of(href.toString(), rel);
+    }
+
+    private static String mappingPath(AnnotatedElement element) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(element, RequestMapping.class);
+        return mapping == null || mapping.path().length == 0 ? "" : mapping.path()[0];
+    }
+
+    // Scheme/host/context path of the current request, resolved once per request
+    private static String currentBaseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return "";
+
+        Object baseUri = attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (String) baseUri;
+    }
+}
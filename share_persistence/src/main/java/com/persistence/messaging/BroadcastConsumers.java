@@ -0,0 +1,26 @@
+package com.persistence.messaging;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * For listeners that give every instance its own consumer group, so each instance sees
+ * every record. Such a group is new on each start and would begin at the latest offset;
+ * rewinding to just before the instance loaded its state closes that gap. Handlers must
+ * therefore tolerate replays of the overlap.
+ */
+public final class BroadcastConsumers {
+
+    // Record timestamps come from the producers' clocks, which may lag this one
+    public static final Duration REPLAY_MARGIN = Duration.ofMinutes(1);
+
+    private BroadcastConsumers() {
+    }
+
+    public static void rewindTo(long loadedAtMillis, Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), loadedAtMillis - REPLAY_MARGIN.toMillis());
+    }
+}
@@ -0,0 +1,86 @@
+package com.persistence.messaging;
+
+import com.persistence.DTO.PublisherStatsDTO;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keyed, asynchronous event publishing with a bounded in-flight window.
+ * When maxInFlight sends are unacknowledged, callers block up to acquireTimeoutMs
+ * and are then rejected, so a slow broker pushes back instead of piling up memory.
+ */
+public class EventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Semaphore window;
+    private final int maxInFlight;
+    private final long acquireTimeoutMs;
+
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public EventPublisher(KafkaTemplate<String, Object> kafkaTemplate, int maxInFlight, long acquireTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.window = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    // key = aggregate id (courseId, enrollmentId ...) so one aggregate's events stay ordered on one partition
+    public CompletableFuture<SendResult<String, Object>> publish(String topic, String key, Object event) {
+        try {
+            if (!window.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(
+                        new IllegalStateException("Publisher in-flight window full (" + maxInFlight + ")"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = kafkaTemplate.send(topic, key, event);
+        } catch (RuntimeException e) {
+            window.release();
+            failed.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, ex) -> {
+            window.release();
+            long latency = System.nanoTime() - start;
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            if (ex == null) {
+                acknowledged.increment();
+            } else {
+                failed.increment();
+            }
+        });
+    }
+
+    public PublisherStatsDTO stats() {
+        long completed = acknowledged.sum() + failed.sum();
+        return PublisherStatsDTO.builder()
+                .acknowledged(acknowledged.sum())
+                .failed(failed.sum())
+                .rejected(rejected.sum())
+                .inFlight(maxInFlight - window.availablePermits())
+                .avgLatencyMs(completed == 0 ? 0 : totalLatencyNanos.sum() / completed / 1_000_000.0)
+                .maxLatencyMs(maxLatencyNanos.get() / 1_000_000.0)
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.persistence.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.Entity.OutboxEvent;
+import com.persistence.Repository.OutboxEventRepository;
+import com.persistence.messaging.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox table to Kafka in batches. A batch is locked, sent with at most
+ * batchSize records in flight, and acknowledged rows are deleted in the same
+ * transaction. Failed rows stay in the table and are retried on the next run,
+ * up to maxAttempts times. Only rows written by this service (its origin) are
+ * claimed, since only this service has their event classes; untagged rows from
+ * before the origin column are adopted by the first service that can load them.
+ * A claimed row whose event class is missing is parked at once (attempts set to
+ * maxAttempts) so it cannot hold up the rows behind it.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final String origin;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+    private volatile boolean untaggedRowsLeft = true;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventPublisher eventPublisher,
+                       ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                       String origin, int batchSize, long sendTimeoutMs, int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.origin = origin;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void drain() {
+        if (untaggedRowsLeft) {
+            adoptUntaggedRows();
+        }
+
+        // Keep going while full batches are settled, back off to the next tick on any failure
+        Integer settled;
+        do {
+            settled = transactionTemplate.execute(status -> relayBatch());
+        } while (settled != null && settled == batchSize);
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(origin, batchSize, maxAttempts);
+        if (batch.isEmpty()) return 0;
+
+        List<OutboxEvent> sent = new ArrayList<>(batch.size());
+        List<CompletableFuture<?>> inFlight = new ArrayList<>(batch.size());
+        int parked = 0;
+        for (OutboxEvent event : batch) {
+            Class<?> eventType = loadEventType(event);
+            if (eventType == null) {
+                parked++;
+                continue;
+            }
+            sent.add(event);
+            inFlight.add(send(event, eventType));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+        List<OutboxEvent> acknowledged = new ArrayList<>(sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            OutboxEvent event = sent.get(i);
+            try {
+                inFlight.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                acknowledged.add(event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markFailed(event, e);
+            } catch (ExecutionException | TimeoutException e) {
+                markFailed(event, e);
+            }
+        }
+
+        outboxEventRepository.deleteAllInBatch(acknowledged);
+        return acknowledged.size() + parked;
+    }
+
+    // Retrying cannot help a missing class, and left at the head of the queue the row would
+    // stall everything behind it: park it like an exhausted row, for inspection
+    private Class<?> loadEventType(OutboxEvent event) {
+        try {
+            return Class.forName(event.getEventType());
+        } catch (ClassNotFoundException e) {
+            log.error("Outbox row {} has event type {}, which {} cannot load; parking it",
+                    event.getId(), event.getEventType(), origin);
+            event.setAttempts(maxAttempts);
+            event.setLastError("ClassNotFoundException: " + event.getEventType());
+            return null;
+        }
+    }
+
+    private void adoptUntaggedRows() {
+        List<String> eventTypes = outboxEventRepository.findUntaggedEventTypes();
+        if (eventTypes.isEmpty()) {
+            untaggedRowsLeft = false;
+            return;
+        }
+        for (String eventType : eventTypes) {
+            if (canLoad(eventType)) {
+                outboxEventRepository.adoptUntagged(origin, eventType);
+            }
+        }
+    }
+
+    private static boolean canLoad(String className) {
+        try {
+            Class.forName(className);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event, Class<?> eventType) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), eventType);
+            return eventPublisher.publish(event.getTopic(), event.getEventKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void markFailed(OutboxEvent event, Exception e) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(cause.getClass().getSimpleName() + ": " + cause.getMessage());
+    }
+}
@@ -0,0 +1,41 @@
+package com.persistence.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.Entity.OutboxEvent;
+import com.persistence.Repository.OutboxEventRepository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records a domain event in the outbox table as part of the caller's transaction,
+ * so the event exists if and only if the entity change commits. {@link OutboxRelay}
+ * publishes it to Kafka afterwards, off the request path.
+ */
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final String origin;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, String origin) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.origin = origin;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(String topic, Object key, Object event) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .origin(origin)
+                    .eventKey(key == null ? null : String.valueOf(key))
+                    .eventType(event.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event for topic " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.persistence.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Remembers tokens that already passed the delegate's signature and claim checks, so a token
+ * presented on every request is parsed and HMAC-verified once per service instead of each
+ * time. Entries are keyed by a SHA-256 digest of the token (the raw bearer token is never
+ * kept), live no longer than the token's own expiry (capped at maxTtl) and are bounded in
+ * number. Rejected tokens are not cached; revoked ones are refused even when cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final RevocationList revocationList;
+    private final Cache<String, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, RevocationList revocationList, long maxEntries, Duration maxTtl) {
+        this.delegate = delegate;
+        this.revocationList = revocationList;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+                        return remainingNanos(jwt, maxTtl);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return remainingNanos(jwt, maxTtl);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        Jwt jwt = verified.getIfPresent(key);
+        if (jwt == null) {
+            jwt = delegate.decode(token);
+            verified.put(key, jwt);
+        }
+
+        // Checked on every decode, cached or not, so a revocation takes effect immediately
+        if (revocationList.isRevoked(jwt.getId(), jwt.getExpiresAt())) {
+            throw new BadJwtException("Token has been revoked");
+        }
+        return jwt;
+    }
+
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    private static long remainingNanos(Jwt jwt, Duration maxTtl) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) return maxTtl.toNanos();
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative()) return 0;
+        return Math.min(remaining.toNanos(), maxTtl.toNanos());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.persistence.security;
+
+import com.persistence.Entity.User;
+import com.persistence.Repository.UserRepo;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * The caller of the current request, read straight from the verified JWT's claims
+ * (sub = email, userId, role), so ownership checks need no user lookup. id is null for
+ * tokens issued before the userId claim was added.
+ */
+public record CurrentUser(Long id, String email, String role) {
+
+    public static CurrentUser get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Jwt jwt)) {
+            throw new AccessDeniedException("No authenticated user");
+        }
+        Object userId = jwt.getClaims().get("userId");
+        return new CurrentUser(
+                userId instanceof Number n ? n.longValue() : null,
+                jwt.getSubject(),
+                jwt.getClaimAsString("role"));
+    }
+
+    // Tokens issued before the userId claim resolve by email until they expire
+    public Long requireUserId(UserRepo userRepo) {
+        if (id != null) return id;
+        return userRepo.findByEmail(email)
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + email));
+    }
+
+    public boolean isAdmin() {
+        return "ADMIN".equalsIgnoreCase(role);
+    }
+
+    public boolean isInstructor() {
+        return "INSTRUCTOR".equalsIgnoreCase(role);
+    }
+}
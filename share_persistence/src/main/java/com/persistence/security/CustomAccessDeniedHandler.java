@@ -15,6 +15,9 @@ import java.io.IOException;
 @Component
 public class CustomAccessDeniedHandler implements AccessDeniedHandler {
 
+    // With the JSR-310 module, for ApiErrorResponse's LocalDateTime timestamp
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
     @Override
     public void handle(HttpServletRequest request,
                        HttpServletResponse response,
@@ -29,6 +32,6 @@ public class CustomAccessDeniedHandler implements AccessDeniedHandler {
 
         response.setStatus(HttpServletResponse.SC_FORBIDDEN);
         response.setContentType("application/json");
-        new ObjectMapper().writeValue(response.getOutputStream(), apiError);
+        OBJECT_MAPPER.writeValue(response.getOutputStream(), apiError);
     }
 }
@@ -14,6 +14,9 @@ import java.io.IOException;
 @Component
 public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    // Thread-safe, so one instance; findAndRegisterModules() adds JSR-310 for the timestamp
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
@@ -28,6 +31,6 @@ public class CustomAuthenticationEntryPoint implements AuthenticationEntryPoint
 
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
         response.setContentType("application/json");
-        new ObjectMapper().writeValue(response.getOutputStream(), apiError);
+        OBJECT_MAPPER.writeValue(response.getOutputStream(), apiError);
     }
 }
@@ -0,0 +1,93 @@
+package com.persistence.security;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Revoked token ids, checked on every request without I/O. Each revoked id goes into a bloom
+ * filter for the hour its token expires in, so the check for a token is {@value #PROBES} bit
+ * probes into a single bucket; only a bloom hit consults the exact set, which settles false
+ * positives. Buckets (and their exact entries) are dropped once their hour has passed, since
+ * those tokens fail the exp check anyway.
+ */
+public class RevocationList {
+
+    private static final long BUCKET_MILLIS = 60 * 60 * 1000L;
+    private static final int PROBES = 4;
+
+    private final int bitsPerBucket;
+    private final Clock clock;
+    private final ConcurrentSkipListMap<Long, AtomicLongArray> buckets = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Long> exact = new ConcurrentHashMap<>();
+    private volatile long prunedBucket;
+
+    // bitsPerBucket is rounded up to a power of two; ~10 bits per revocation gives ~1% bloom hits
+    public RevocationList(int bitsPerBucket) {
+        this(bitsPerBucket, Clock.systemUTC());
+    }
+
+    RevocationList(int bitsPerBucket, Clock clock) {
+        this.bitsPerBucket = Math.max(64, Integer.highestOneBit(Math.max(1, bitsPerBucket - 1)) << 1);
+        this.clock = clock;
+    }
+
+    public void revoke(String tokenId, long expiresAtMillis) {
+        if (tokenId == null || expiresAtMillis <= clock.millis()) return;
+
+        exact.put(tokenId, expiresAtMillis);
+        AtomicLongArray bits = buckets.computeIfAbsent(expiresAtMillis / BUCKET_MILLIS,
+                k -> new AtomicLongArray(bitsPerBucket / 64));
+        long hash = hash(tokenId);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = probe(hash, i);
+            bits.getAndAccumulate(bit >>> 6, 1L << bit, (a, b) -> a | b);
+        }
+    }
+
+    public boolean isRevoked(String tokenId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null) return false;
+        pruneIfDue();
+
+        AtomicLongArray bits = buckets.get(expiresAt.toEpochMilli() / BUCKET_MILLIS);
+        if (bits == null) return false;
+        long hash = hash(tokenId);
+        for (int i = 0; i < PROBES; i++) {
+            int bit = probe(hash, i);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) return false;
+        }
+        return exact.containsKey(tokenId);
+    }
+
+    private void pruneIfDue() {
+        long now = clock.millis();
+        long current = now / BUCKET_MILLIS;
+        if (current == prunedBucket) return;
+        prunedBucket = current;
+        buckets.headMap(current).clear();
+        exact.values().removeIf(expiresAtMillis -> expiresAtMillis <= now);
+    }
+
+    // Double hashing: probe i = h1 + i * h2
+    private int probe(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + i * h2) & (bitsPerBucket - 1);
+    }
+
+    private static long hash(String tokenId) {
+        long h = 0xcbf29ce484222325L; // FNV-1a, then a murmur3 finaliser
+        for (int i = 0; i < tokenId.length(); i++) {
+            h ^= tokenId.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
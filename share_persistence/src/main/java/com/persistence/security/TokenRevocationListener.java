@@ -0,0 +1,55 @@
+package com.persistence.security;
+
+import com.persistence.DTO.TokenRevokedEvent;
+import com.persistence.Entity.RevokedToken;
+import com.persistence.Repository.RevokedTokenRepository;
+import com.persistence.messaging.BroadcastConsumers;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Keeps a service's RevocationList current: preloads the still-live revocations once at
+ * startup, then follows token-revoked-topic. A revocation must reach every instance, so
+ * this is a {@link BroadcastConsumers} listener that rewinds to just before the preload
+ * began, catching anything revoked while the subscription was being set up. Revoking
+ * the same token twice is harmless.
+ * Registered as a bean in each service's SecurityConfig.
+ */
+public class TokenRevocationListener implements ConsumerSeekAware {
+
+    private final RevocationList revocationList;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private volatile long preloadStartedAt = System.currentTimeMillis();
+
+    public TokenRevocationListener(RevocationList revocationList, RevokedTokenRepository revokedTokenRepository) {
+        this.revocationList = revocationList;
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    public void preload() {
+        preloadStartedAt = System.currentTimeMillis();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+            revocationList.revoke(token.getTokenId(),
+                    token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        BroadcastConsumers.rewindTo(preloadStartedAt, assignments, callback);
+    }
+
+    @KafkaListener(topics = "token-revoked-topic", groupId = "token-revocation-#{T(java.util.UUID).randomUUID()}")
+    public void handleTokenRevoked(TokenRevokedEvent event) {
+        if (event.getExpiresAtMillis() != null) {
+            revocationList.revoke(event.getTokenId(), event.getExpiresAtMillis());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.persistence.tx;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects (search index, caches, aggregates) until the surrounding
+ * transaction has committed, so a rollback leaves nothing behind and no concurrent reader
+ * can pick up state the database never saw. Without an active transaction the action
+ * runs immediately.
+ */
+@Slf4j
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The write is already durable: a failing side effect must not turn it into an error response
+                try {
+                    action.run();
+                } catch (RuntimeException e) {
+                    log.error("After-commit action failed", e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.persistence.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnswerCodecTest {
+
+    @Test
+    void roundTripsAnswersIncludingNullAndEmpty() {
+        Map<Long, String> answers = new HashMap<>();
+        answers.put(3L, "Paris");
+        answers.put(1L, null);
+        answers.put(2L, "");
+        answers.put(4L, "caf\u00e9 \u2713 \u65e5\u672c \ud83d\ude00");
+
+        assertThat(AnswerCodec.decode(AnswerCodec.encode(answers))).isEqualTo(answers);
+    }
+
+    @Test
+    void roundTripsLargeIdGaps() {
+        Map<Long, String> answers = new HashMap<>();
+        answers.put(0L, "first");
+        answers.put(127L, "one-byte delta");
+        answers.put(128L, "a");
+        answers.put(5_000_000_000L, "past int range");
+        answers.put(Long.MAX_VALUE, "last");
+
+        assertThat(AnswerCodec.decode(AnswerCodec.encode(answers))).isEqualTo(answers);
+    }
+
+    @Test
+    void emptyAndMissingPayloadsDecodeToNoAnswers() {
+        assertThat(AnswerCodec.decode(AnswerCodec.encode(Map.of()))).isEmpty();
+        assertThat(AnswerCodec.decode(null)).isEmpty();
+        assertThat(AnswerCodec.decode(new byte[0])).isEmpty();
+    }
+
+    @Test
+    void dropsNullAndNegativeIds() {
+        Map<Long, String> answers = new HashMap<>();
+        answers.put(null, "x");
+        answers.put(-1L, "y");
+        answers.put(7L, "z");
+
+        assertThat(AnswerCodec.decode(AnswerCodec.encode(answers))).containsExactly(Map.entry(7L, "z"));
+    }
+
+    @Test
+    void decodesInAscendingIdOrder() {
+        Map<Long, String> answers = Map.of(30L, "c", 10L, "a", 20L, "b");
+
+        assertThat(AnswerCodec.decode(AnswerCodec.encode(answers)).keySet()).containsExactly(10L, 20L, 30L);
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] bytes = AnswerCodec.encode(Map.of(1L, "a"));
+        bytes[0] = 9;
+
+        assertThatThrownBy(() -> AnswerCodec.decode(bytes)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void randomMapsRoundTrip() {
+        Random random = new Random(42);
+        for (int round = 0; round < 1_000; round++) {
+            Map<Long, String> answers = new HashMap<>();
+            long id = random.nextInt(1_000);
+            for (int i = 0; i < random.nextInt(50); i++) {
+                id += 1 + (random.nextBoolean() ? random.nextInt(10) : (long) random.nextInt(Integer.MAX_VALUE) * 1_000);
+                answers.put(id, random.nextInt(8) == 0 ? null : "answer " + random.nextInt());
+            }
+
+            assertThat(AnswerCodec.decode(AnswerCodec.encode(answers))).isEqualTo(answers);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.persistence.hateoas;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LinkTemplateTest {
+
+    @RequestMapping("/api/items")
+    static class ItemController {
+
+        @GetMapping("/{id}")
+        public String get(@PathVariable Long id) {
+            return null;
+        }
+
+        @GetMapping("/{id}/parts/{partId}")
+        public String get(@PathVariable Long id, @PathVariable Long partId) {
+            return null;
+        }
+
+        @PutMapping("/{id}")
+        public String update(@PathVariable Long id, @RequestParam String name) {
+            return null;
+        }
+
+        public String helper(Long id) {
+            return null;
+        }
+    }
+
+    @AfterEach
+    void clearRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void expandsPathVariablesPositionally() {
+        LinkTemplate template = LinkTemplate.of(ItemController.class, "update");
+
+        assertThat(template.link("update", 42L).getHref()).isEqualTo("/api/items/42");
+        assertThat(template.link("update", 42L).getRel().value()).isEqualTo("update");
+    }
+
+    @Test
+    void overloadedHandlerNameFailsFast() {
+        assertThatThrownBy(() -> LinkTemplate.of(ItemController.class, "get"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("overloaded");
+    }
+
+    @Test
+    void parameterTypesSelectTheOverload() {
+        assertThat(LinkTemplate.of(ItemController.class, "get", Long.class)
+                .link("self", 7L).getHref()).isEqualTo("/api/items/7");
+        assertThat(LinkTemplate.of(ItemController.class, "get", Long.class, Long.class)
+                .link("part", 7L, 3L).getHref()).isEqualTo("/api/items/7/parts/3");
+    }
+
+    @Test
+    void unknownOrUnmappedMethodsAreRejected() {
+        assertThatThrownBy(() -> LinkTemplate.of(ItemController.class, "missing"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LinkTemplate.of(ItemController.class, "helper"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LinkTemplate.of(ItemController.class, "helper", Long.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not a request handler");
+        assertThatThrownBy(() -> LinkTemplate.of(ItemController.class, "get", String.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void prefixesTheCurrentRequestBaseUri() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items");
+        request.setServerName("courses.example");
+        request.setServerPort(8443);
+        request.setScheme("https");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertThat(LinkTemplate.of(ItemController.class, "get", Long.class).link("self", 1L).getHref())
+                .isEqualTo("https://courses.example:8443/api/items/1");
+    }
+}
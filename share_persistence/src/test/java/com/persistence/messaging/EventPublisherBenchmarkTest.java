@@ -0,0 +1,145 @@
+package com.persistence.messaging;
+
+import com.persistence.DTO.PublisherStatsDTO;
+import com.persistence.DTO.TokenRevokedEvent;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Publishes the same keyed event stream through EventPublisher twice against an in-process
+ * broker: once with plain producer defaults (what KafkaConfig used to build) and once with
+ * KafkaProducerSettings.tuned. Reports throughput and ack latency, and checks that
+ * <ul>
+ *     <li>each key's events were acknowledged on one partition at increasing offsets, in the
+ *     order they were published;</li>
+ *     <li>the sends outstanding at the KafkaTemplate, counted on every send and every
+ *     completion, never exceeded the publisher's in-flight window.</li>
+ * </ul>
+ *
+ * Tagged "benchmark" (run with ./gradlew :share_persistence:benchmark).
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 6, topics = EventPublisherBenchmarkTest.TOPIC)
+class EventPublisherBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EventPublisherBenchmarkTest.class);
+
+    static final String TOPIC = "publisher-benchmark";
+
+    private static final int WARMUP_EVENTS = 20_000;
+    private static final int EVENTS = 200_000;
+    private static final int KEYS = 1_000;
+    private static final int MAX_IN_FLIGHT = 1_000;
+
+    private record Result(String name, double eventsPerSecond, PublisherStatsDTO stats, int maxObservedInFlight) {}
+
+    // One acknowledged send: its position in the key's publish order and where it landed
+    private record Ack(int sequence, int partition, long offset) {}
+
+    @Test
+    void tunedSettingsAgainstProducerDefaults(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> defaults = Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString(),
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+
+        List<Result> results = List.of(
+                run("defaults", defaults),
+                run("tuned", KafkaProducerSettings.tuned(broker.getBrokersAsString())));
+
+        for (Result result : results) {
+            log.info(String.format("%-9s %,10.0f events/s  avg ack %6.2f ms  max ack %7.2f ms  max in flight %,d",
+                    result.name(), result.eventsPerSecond(), result.stats().getAvgLatencyMs(),
+                    result.stats().getMaxLatencyMs(), result.maxObservedInFlight()));
+            assertThat(result.stats().getAcknowledged()).isEqualTo(EVENTS);
+            assertThat(result.stats().getFailed()).isZero();
+            assertThat(result.stats().getRejected()).isZero();
+            assertThat(result.maxObservedInFlight()).isLessThanOrEqualTo(MAX_IN_FLIGHT);
+        }
+    }
+
+    private Result run(String name, Map<String, Object> producerProps) throws Exception {
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+        try {
+            CountingKafkaTemplate kafkaTemplate = new CountingKafkaTemplate(producerFactory);
+            publishAll(new EventPublisher(kafkaTemplate, MAX_IN_FLIGHT, 30_000), WARMUP_EVENTS, new ConcurrentHashMap<>());
+
+            kafkaTemplate.maxOutstanding.set(0);
+            EventPublisher publisher = new EventPublisher(kafkaTemplate, MAX_IN_FLIGHT, 30_000);
+            Map<String, ConcurrentLinkedQueue<Ack>> acksByKey = new ConcurrentHashMap<>();
+            long start = System.nanoTime();
+            publishAll(publisher, EVENTS, acksByKey);
+            long elapsed = System.nanoTime() - start;
+
+            assertThat(acksByKey).hasSize(KEYS);
+            acksByKey.forEach((key, acks) -> {
+                List<Ack> inPublishOrder = acks.stream().sorted(Comparator.comparingInt(Ack::sequence)).toList();
+                assertThat(inPublishOrder).as(key).hasSize(EVENTS / KEYS);
+                for (int i = 1; i < inPublishOrder.size(); i++) {
+                    Ack previous = inPublishOrder.get(i - 1);
+                    Ack current = inPublishOrder.get(i);
+                    assertThat(current.partition()).as(key).isEqualTo(previous.partition());
+                    assertThat(current.offset()).as(key).isGreaterThan(previous.offset());
+                }
+            });
+
+            return new Result(name, EVENTS * 1e9 / elapsed, publisher.stats(), kafkaTemplate.maxOutstanding.get());
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private static void publishAll(EventPublisher publisher, int events, Map<String, ConcurrentLinkedQueue<Ack>> acksByKey)
+            throws Exception {
+        List<CompletableFuture<?>> futures = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            String key = "course-" + (i % KEYS);
+            int sequence = i / KEYS;
+            TokenRevokedEvent event = new TokenRevokedEvent("token-" + i, (long) (i % KEYS), System.currentTimeMillis());
+            futures.add(publisher.publish(TOPIC, key, event).thenAccept(result -> acksByKey
+                    .computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>())
+                    .add(new Ack(sequence, result.getRecordMetadata().partition(), result.getRecordMetadata().offset()))));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.MINUTES);
+    }
+
+    // Counts sends handed to Kafka and not yet completed, independently of EventPublisher's semaphore
+    private static final class CountingKafkaTemplate extends KafkaTemplate<String, Object> {
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger maxOutstanding = new AtomicInteger();
+
+        CountingKafkaTemplate(ProducerFactory<String, Object> producerFactory) {
+            super(producerFactory);
+        }
+
+        @Override
+        public CompletableFuture<SendResult<String, Object>> send(String topic, String key, Object data) {
+            maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+            return super.send(topic, key, data).whenComplete((result, ex) -> outstanding.decrementAndGet());
+        }
+    }
+}
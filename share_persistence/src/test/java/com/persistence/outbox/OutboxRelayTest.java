@@ -0,0 +1,113 @@
+package com.persistence.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persistence.DTO.TokenRevokedEvent;
+import com.persistence.Entity.OutboxEvent;
+import com.persistence.Repository.OutboxEventRepository;
+import com.persistence.messaging.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private static final String ORIGIN = "auth-service";
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    private final EventPublisher publisher = mock(EventPublisher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new OutboxRelay(repository, publisher, objectMapper, mock(PlatformTransactionManager.class),
+                ORIGIN, 10, 1_000, 5);
+        when(repository.findUntaggedEventTypes()).thenReturn(List.of());
+    }
+
+    @Test
+    void claimsOnlyItsOwnRowsAndDeletesAcknowledgedOnes() throws Exception {
+        OutboxEvent event = row(1L, TokenRevokedEvent.class.getName());
+        when(repository.lockNextBatch(ORIGIN, 10, 5)).thenReturn(List.of(event));
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(any(), any(), any());
+
+        relay.drain();
+
+        verify(repository).lockNextBatch(ORIGIN, 10, 5);
+        verify(publisher).publish(eq("token-revoked-topic"), eq("key-1"), any(TokenRevokedEvent.class));
+        verify(repository).deleteAllInBatch(List.of(event));
+    }
+
+    @Test
+    void failedSendCountsAnAttempt() throws Exception {
+        OutboxEvent event = row(1L, TokenRevokedEvent.class.getName());
+        when(repository.lockNextBatch(ORIGIN, 10, 5)).thenReturn(List.of(event));
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                .when(publisher).publish(any(), any(), any());
+
+        relay.drain();
+
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).contains("broker down");
+        verify(repository).deleteAllInBatch(List.of());
+    }
+
+    @Test
+    void unloadableEventTypeIsParkedAndTheRowsBehindItStillGo() throws Exception {
+        relay = new OutboxRelay(repository, publisher, objectMapper, mock(PlatformTransactionManager.class),
+                ORIGIN, 2, 1_000, 5);
+        OutboxEvent unknown = row(1L, "com.elsewhere.event.SomethingHappened");
+        OutboxEvent first = row(2L, TokenRevokedEvent.class.getName());
+        OutboxEvent second = row(3L, TokenRevokedEvent.class.getName());
+        when(repository.lockNextBatch(ORIGIN, 2, 5))
+                .thenReturn(List.of(unknown, first))
+                .thenReturn(List.of(second));
+        doReturn(CompletableFuture.completedFuture(null)).when(publisher).publish(any(), any(), any());
+
+        relay.drain();
+
+        // attempts = maxAttempts keeps it out of every later lockNextBatch
+        assertThat(unknown.getAttempts()).isEqualTo(5);
+        assertThat(unknown.getLastError()).contains("com.elsewhere.event.SomethingHappened");
+        // The parked row counts towards a full batch, so the same tick goes on to the next one
+        verify(repository, times(2)).lockNextBatch(ORIGIN, 2, 5);
+        verify(repository).deleteAllInBatch(List.of(first));
+        verify(repository).deleteAllInBatch(List.of(second));
+        verify(publisher, times(2)).publish(any(), any(), any());
+    }
+
+    @Test
+    void adoptsOnlyUntaggedRowsWhoseClassItCanLoad() {
+        when(repository.findUntaggedEventTypes())
+                .thenReturn(List.of(TokenRevokedEvent.class.getName(), "com.elsewhere.event.SomethingHappened"))
+                .thenReturn(List.of());
+        when(repository.lockNextBatch(ORIGIN, 10, 5)).thenReturn(List.of());
+
+        relay.drain();
+        relay.drain();
+        relay.drain();
+
+        verify(repository).adoptUntagged(ORIGIN, TokenRevokedEvent.class.getName());
+        verify(repository, never()).adoptUntagged(ORIGIN, "com.elsewhere.event.SomethingHappened");
+        // Once nothing is untagged the check stops
+        verify(repository, times(2)).findUntaggedEventTypes();
+    }
+
+    private OutboxEvent row(Long id, String eventType) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .origin(ORIGIN)
+                .topic("token-revoked-topic")
+                .eventKey("key-" + id)
+                .eventType(eventType)
+                .payload(objectMapper.writeValueAsString(new TokenRevokedEvent("jti-" + id, 7L, 0L)))
+                .build();
+    }
+}
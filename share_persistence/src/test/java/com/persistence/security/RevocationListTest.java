@@ -0,0 +1,113 @@
+package com.persistence.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RevocationListTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T10:15:00Z"));
+
+    @Test
+    void everyRevokedTokenIsReported() {
+        // Far more revocations than the bloom filter is sized for: bits collide, ids must not be missed
+        RevocationList list = new RevocationList(1_000, clock);
+        List<String> revoked = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            String id = UUID.randomUUID().toString();
+            Instant expiresAt = clock.instant().plus(Duration.ofMinutes(1 + i % 300));
+            list.revoke(id, expiresAt.toEpochMilli());
+            revoked.add(id + "|" + expiresAt.toEpochMilli());
+        }
+
+        for (String entry : revoked) {
+            String[] parts = entry.split("\\|");
+            assertThat(list.isRevoked(parts[0], Instant.ofEpochMilli(Long.parseLong(parts[1])))).as(parts[0]).isTrue();
+        }
+    }
+
+    @Test
+    void bloomHitsAreSettledByTheExactSet() {
+        RevocationList list = new RevocationList(64, clock);
+        Instant expiresAt = clock.instant().plus(Duration.ofMinutes(30));
+        for (int i = 0; i < 500; i++) {
+            list.revoke("revoked-" + i, expiresAt.toEpochMilli());
+        }
+
+        // A saturated 64-bit filter matches everything; none of these were revoked
+        for (int i = 0; i < 500; i++) {
+            assertThat(list.isRevoked("live-" + i, expiresAt)).isFalse();
+        }
+    }
+
+    @Test
+    void missingIdsAndExpiredRevocationsAreIgnored() {
+        RevocationList list = new RevocationList(1_000, clock);
+        Instant expiresAt = clock.instant().plus(Duration.ofMinutes(30));
+        list.revoke(null, expiresAt.toEpochMilli());
+        list.revoke("already-expired", clock.millis() - 1);
+
+        assertThat(list.isRevoked(null, expiresAt)).isFalse();
+        assertThat(list.isRevoked("id", null)).isFalse();
+        assertThat(list.isRevoked("already-expired", Instant.ofEpochMilli(clock.millis() - 1))).isFalse();
+    }
+
+    @Test
+    void bucketsAreDroppedOnceTheirHourHasPassed() {
+        RevocationList list = new RevocationList(1_000, clock);
+        Instant soon = clock.instant().plus(Duration.ofMinutes(20));
+        Instant later = clock.instant().plus(Duration.ofHours(3));
+        list.revoke("soon", soon.toEpochMilli());
+        list.revoke("later", later.toEpochMilli());
+        assertThat(list.isRevoked("soon", soon)).isTrue();
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThat(list.isRevoked("soon", soon)).isFalse();
+        assertThat(list.isRevoked("later", later)).isTrue();
+
+        // A token revoked again after its bucket was dropped is tracked afresh
+        clock.advance(Duration.ofHours(2));
+        assertThat(list.isRevoked("later", later)).isFalse();
+        Instant renewed = clock.instant().plus(Duration.ofMinutes(5));
+        list.revoke("later", renewed.toEpochMilli());
+        assertThat(list.isRevoked("later", renewed)).isTrue();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
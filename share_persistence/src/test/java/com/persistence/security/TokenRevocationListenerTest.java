@@ -0,0 +1,55 @@
+package com.persistence.security;
+
+import com.persistence.DTO.TokenRevokedEvent;
+import com.persistence.Entity.RevokedToken;
+import com.persistence.Repository.RevokedTokenRepository;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationListenerTest {
+
+    private final RevocationList revocationList = new RevocationList(1_000);
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final TokenRevocationListener listener = new TokenRevocationListener(revocationList, repository);
+
+    @Test
+    void rewindsToBeforeThePreloadSoNothingInBetweenIsMissed() {
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(1);
+        RevokedToken stored = mock(RevokedToken.class);
+        when(stored.getTokenId()).thenReturn("stored");
+        when(stored.getExpiresAt()).thenReturn(expiresAt);
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(stored));
+
+        long beforePreload = System.currentTimeMillis();
+        listener.preload();
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        TopicPartition partition = new TopicPartition("token-revoked-topic", 0);
+        listener.onPartitionsAssigned(Map.of(partition, 42L), callback);
+
+        ArgumentCaptor<Long> timestamp = ArgumentCaptor.forClass(Long.class);
+        verify(callback).seekToTimestamp(eq(Set.of(partition)), timestamp.capture());
+        assertThat(timestamp.getValue()).isLessThan(beforePreload);
+
+        // Revoked after the preload's snapshot, replayed from the topic
+        long eventExpiry = Instant.now().plusSeconds(3_600).toEpochMilli();
+        listener.handleTokenRevoked(TokenRevokedEvent.builder().tokenId("replayed").userId(7L).expiresAtMillis(eventExpiry).build());
+
+        assertThat(revocationList.isRevoked("replayed", Instant.ofEpochMilli(eventExpiry))).isTrue();
+        assertThat(revocationList.isRevoked("stored",
+                expiresAt.atZone(ZoneId.systemDefault()).toInstant())).isTrue();
+    }
+}